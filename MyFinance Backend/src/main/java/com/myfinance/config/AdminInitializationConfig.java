@@ -1,12 +1,16 @@
 package com.myfinance.config;
 
 import com.myfinance.service.AuthService;
+import com.myfinance.service.BudgetService;
+import com.myfinance.service.MigrationService;
 import com.myfinance.service.RoleService;
 import com.myfinance.service.SystemConfigService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -20,6 +24,8 @@ public class AdminInitializationConfig implements CommandLineRunner {
     private final RoleService roleService;
     private final SystemConfigService systemConfigService;
     private final AuthService authService;
+    private final MigrationService migrationService;
+    private final BudgetService budgetService;
 
     @Override
     @Transactional
@@ -45,4 +51,30 @@ public class AdminInitializationConfig implements CommandLineRunner {
             // Don't fail application startup if admin initialization fails
         }
     }
+
+    /**
+     * Backfill derived data for rows created before it existed.
+     * Each step runs in its own transaction once the app is ready, so a failure neither blocks startup
+     * nor rolls back the initialization above.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillDerivedData() {
+        try {
+            if (migrationService.needsMonthCategoryTotalsBackfill()) {
+                migrationService.rebuildMonthCategoryTotals();
+                log.info("Monthly category rollup backfilled successfully");
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill monthly category rollup", e);
+        }
+
+        try {
+            if (budgetService.needsSpentAmountBackfill()) {
+                budgetService.reconcileSpentAmounts();
+                log.info("Budget spent counters backfilled successfully");
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill budget spent counters", e);
+        }
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.myfinance.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -21,4 +23,51 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Dedicated pool for on-demand report jobs, so slow PDF/ZIP generation
+     * never competes with email delivery or request threads
+     */
+    @Bean(name = "reportJobExecutor")
+    public ThreadPoolTaskExecutor reportJobExecutor(
+            @Value("${app.report-jobs.pool-size:2}") int poolSize,
+            @Value("${app.report-jobs.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-job-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single sender thread draining the email outbox; batches already share one SMTP connection
+     */
+    @Bean(name = "emailSenderExecutor")
+    public ThreadPoolTaskExecutor emailSenderExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("email-sender-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Worker pool for due scheduled reports; one slow report only occupies one worker
+     */
+    @Bean(name = "scheduledReportExecutor")
+    public ThreadPoolTaskExecutor scheduledReportExecutor(
+            @Value("${app.scheduled-reports.pool-size:4}") int poolSize,
+            @Value("${app.scheduled-reports.queue-capacity:2000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("scheduled-report-");
+        executor.initialize();
+        return executor;
+    }
 }
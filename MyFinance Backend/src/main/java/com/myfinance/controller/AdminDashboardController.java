@@ -5,6 +5,10 @@ import com.myfinance.dto.response.ApiResponse;
 import com.myfinance.security.RequiresAdmin;
 import com.myfinance.service.AuditService;
 import com.myfinance.service.DashboardService;
+import com.myfinance.service.EmailOutboxService;
+import com.myfinance.service.ReportCacheService;
+import com.myfinance.service.ScheduledReportService;
+import com.myfinance.util.VerifiedTokenCache;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +29,10 @@ public class AdminDashboardController {
 
     private final DashboardService dashboardService;
     private final AuditService auditService;
+    private final ReportCacheService reportCacheService;
+    private final ScheduledReportService scheduledReportService;
+    private final EmailOutboxService emailOutboxService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @GetMapping
     public ResponseEntity<ApiResponse<AdminDashboardResponse>> getDashboard(
@@ -126,4 +134,76 @@ public class AdminDashboardController {
                 .body(ApiResponse.error("Lỗi hệ thống khi lấy tóm tắt audit"));
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/report-cache")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getReportCacheStats(
+            Authentication authentication,
+            HttpServletRequest request) {
+
+        try {
+            Map<String, Object> stats = reportCacheService.getStats();
+
+            // No audit log for cache statistics - routine monitoring
+
+            return ResponseEntity.ok(ApiResponse.success("Lấy thống kê bộ nhớ đệm báo cáo thành công", stats));
+        } catch (Exception e) {
+            log.error("Lỗi khi lấy thống kê bộ nhớ đệm báo cáo", e);
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Lỗi hệ thống khi lấy thống kê bộ nhớ đệm báo cáo"));
+        }
+    }
+
+    @GetMapping("/scheduled-reports")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getScheduledReportStats(
+            Authentication authentication,
+            HttpServletRequest request) {
+
+        try {
+            Map<String, Object> stats = scheduledReportService.getExecutionStats();
+
+            // No audit log for execution statistics - routine monitoring
+
+            return ResponseEntity.ok(ApiResponse.success("Lấy thống kê báo cáo định kỳ thành công", stats));
+        } catch (Exception e) {
+            log.error("Lỗi khi lấy thống kê báo cáo định kỳ", e);
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Lỗi hệ thống khi lấy thống kê báo cáo định kỳ"));
+        }
+    }
+
+    @GetMapping("/email-outbox")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getEmailOutboxStats(
+            Authentication authentication,
+            HttpServletRequest request) {
+
+        try {
+            Map<String, Object> stats = emailOutboxService.getStats();
+
+            // No audit log for delivery statistics - routine monitoring
+
+            return ResponseEntity.ok(ApiResponse.success("Lấy thống kê hàng đợi email thành công", stats));
+        } catch (Exception e) {
+            log.error("Lỗi khi lấy thống kê hàng đợi email", e);
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Lỗi hệ thống khi lấy thống kê hàng đợi email"));
+        }
+    }
+
+    @GetMapping("/token-cache")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getTokenCacheStats(
+            Authentication authentication,
+            HttpServletRequest request) {
+
+        try {
+            Map<String, Object> stats = verifiedTokenCache.getStats();
+
+            // No audit log for cache statistics - routine monitoring
+
+            return ResponseEntity.ok(ApiResponse.success("Lấy thống kê bộ nhớ đệm token thành công", stats));
+        } catch (Exception e) {
+            log.error("Lỗi khi lấy thống kê bộ nhớ đệm token", e);
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Lỗi hệ thống khi lấy thống kê bộ nhớ đệm token"));
+        }
+    }
+}
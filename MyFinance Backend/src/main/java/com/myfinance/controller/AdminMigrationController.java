@@ -77,4 +77,31 @@ public class AdminMigrationController {
                 .body(ApiResponse.error("Lỗi hệ thống khi kiểm tra migration"));
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/month-category-totals")
+    public ResponseEntity<ApiResponse<Integer>> rebuildMonthCategoryTotals(
+            Authentication authentication,
+            HttpServletRequest request) {
+
+        try {
+            int rows = migrationService.rebuildMonthCategoryTotals();
+
+            auditService.logAdminAction(
+                authentication.getName(),
+                "MONTH_CATEGORY_TOTALS_REBUILD",
+                "UserMonthCategoryTotal",
+                null,
+                "Xây dựng lại bảng tổng hợp giao dịch theo tháng và danh mục",
+                request.getRemoteAddr(),
+                request.getHeader("User-Agent")
+            );
+
+            return ResponseEntity.ok(ApiResponse.success("Xây dựng lại bảng tổng hợp thành công", rows));
+
+        } catch (Exception e) {
+            log.error("Lỗi khi xây dựng lại bảng tổng hợp theo tháng", e);
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Lỗi hệ thống khi xây dựng lại bảng tổng hợp"));
+        }
+    }
+}
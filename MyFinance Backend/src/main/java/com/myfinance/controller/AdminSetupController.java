@@ -9,6 +9,7 @@ import com.myfinance.repository.RoleRepository;
 import com.myfinance.repository.UserRepository;
 import com.myfinance.repository.UserRoleRepository;
 import com.myfinance.service.AuditService;
+import com.myfinance.service.RoleService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +30,7 @@ public class AdminSetupController {
     private final UserRoleRepository userRoleRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuditService auditService;
+    private final RoleService roleService;
 
     @PostMapping("/create-admin")
     public ResponseEntity<ApiResponse<String>> createAdminUser(
@@ -141,6 +143,7 @@ public class AdminSetupController {
             userRole.setIsActive(true);
 
             userRoleRepository.save(userRole);
+            roleService.evictUserRoles(user.getId());
 
             // Log promotion
             auditService.logAdminAction(
@@ -2,7 +2,9 @@ package com.myfinance.controller;
 
 import com.myfinance.dto.request.*;
 import com.myfinance.dto.response.*;
+import com.myfinance.security.CurrentUserId;
 import com.myfinance.service.AuthService;
+import com.myfinance.service.UserStatusService;
 import com.myfinance.util.JwtUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +19,7 @@ public class AuthController {
 
     private final AuthService authService;
     private final JwtUtil jwtUtil;
+    private final UserStatusService userStatusService;
 
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<UserResponse>> register(@Valid @RequestBody RegisterRequest request) {
@@ -32,8 +35,7 @@ public class AuthController {
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<ApiResponse<UserResponse>> getProfile(@RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserIdFromToken(authHeader);
+    public ResponseEntity<ApiResponse<UserResponse>> getProfile(@CurrentUserId Long userId) {
         UserResponse response = authService.getProfile(userId);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
@@ -41,9 +43,8 @@ public class AuthController {
     @PutMapping("/profile")
     public ResponseEntity<ApiResponse<UserResponse>> updateProfile(
             @Valid @RequestBody UpdateProfileRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         UserResponse response = authService.updateProfile(userId, request);
         return ResponseEntity.ok(ApiResponse.success("Cập nhật hồ sơ thành công", response));
     }
@@ -51,21 +52,20 @@ public class AuthController {
     @PutMapping("/profile/extended")
     public ResponseEntity<ApiResponse<UserResponse>> updateExtendedProfile(
             @Valid @RequestBody ExtendedProfileRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         UserResponse response = authService.updateExtendedProfile(userId, request);
         return ResponseEntity.ok(ApiResponse.success("Cập nhật thông tin chi tiết thành công", response));
     }
 
     @PostMapping("/change-password")
-    public ResponseEntity<ApiResponse<Void>> changePassword(
+    public ResponseEntity<ApiResponse<String>> changePassword(
             @Valid @RequestBody ChangePasswordRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
-        authService.changePassword(userId, request);
-        return ResponseEntity.ok(ApiResponse.success("Đổi mật khẩu thành công", null));
+        // Previous tokens are revoked; the response carries the new token for this session
+        String token = authService.changePassword(userId, request);
+        return ResponseEntity.ok(ApiResponse.success("Đổi mật khẩu thành công", token));
     }
 
     @PostMapping("/forgot-password")
@@ -80,6 +80,13 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success("Đặt lại mật khẩu thành công", null));
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@CurrentUserId Long userId) {
+        // Revokes every token issued so far, so the user is signed out on all devices
+        userStatusService.revokeTokens(userId);
+        return ResponseEntity.ok(ApiResponse.success("Đăng xuất thành công", null));
+    }
+
     @PostMapping("/verify-token")
     public ResponseEntity<ApiResponse<Boolean>> verifyToken(@RequestHeader("Authorization") String authHeader) {
         try {
@@ -117,9 +124,4 @@ public class AuthController {
                     .body(ApiResponse.error("Token không hợp lệ"));
         }
     }
-
-    private Long extractUserIdFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        return jwtUtil.extractUserId(token);
-    }
 }
\ No newline at end of file
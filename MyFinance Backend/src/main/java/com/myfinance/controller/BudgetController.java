@@ -8,8 +8,8 @@ import com.myfinance.dto.response.BudgetWarningResponse;
 import com.myfinance.dto.response.BudgetPerformanceResponse;
 import com.myfinance.dto.response.BudgetDashboardResponse;
 import com.myfinance.entity.TransactionType;
+import com.myfinance.security.CurrentUserId;
 import com.myfinance.service.BudgetService;
-import com.myfinance.util.JwtUtil;
 import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -28,7 +28,6 @@ import java.util.stream.Collectors;
 public class BudgetController {
 
     private final BudgetService budgetService;
-    private final JwtUtil jwtUtil;
 
     @PostConstruct
     public void init() {
@@ -45,10 +44,9 @@ public class BudgetController {
     @PostMapping
     public ResponseEntity<ApiResponse<BudgetResponse>> createBudget(
             @Valid @RequestBody BudgetRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         log.info("POST /api/budgets called with request: {}", request);
-        Long userId = extractUserIdFromToken(authHeader);
         BudgetResponse response = budgetService.createBudget(request, userId);
 
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -58,9 +56,8 @@ public class BudgetController {
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<BudgetResponse>> getBudget(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         BudgetResponse response = budgetService.getBudgetById(id, userId);
 
         return ResponseEntity.ok(ApiResponse.success(response));
@@ -68,14 +65,13 @@ public class BudgetController {
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<BudgetResponse>>> getUserBudgets(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUserId Long userId,
             @RequestParam(required = false) String type,
             @RequestParam(required = false) Integer year,
             @RequestParam(required = false) Integer month,
             @RequestParam(required = false) Long categoryId) {
 
         log.info("GET /api/budgets called with params - type: {}, year: {}, month: {}, categoryId: {}", type, year, month, categoryId);
-        Long userId = extractUserIdFromToken(authHeader);
         List<BudgetResponse> budgets;
 
         if (year != null && month != null) {
@@ -108,9 +104,8 @@ public class BudgetController {
 
     @GetMapping("/current")
     public ResponseEntity<ApiResponse<List<BudgetResponse>>> getCurrentMonthBudgets(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         List<BudgetResponse> budgets = budgetService.getCurrentMonthBudgets(userId);
 
         return ResponseEntity.ok(ApiResponse.success(budgets));
@@ -120,9 +115,8 @@ public class BudgetController {
     public ResponseEntity<ApiResponse<List<BudgetResponse>>> getBudgetsForPeriod(
             @PathVariable Integer year,
             @PathVariable Integer month,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         List<BudgetResponse> budgets = budgetService.getBudgetsForPeriod(userId, year, month);
 
         return ResponseEntity.ok(ApiResponse.success(budgets));
@@ -132,9 +126,8 @@ public class BudgetController {
     public ResponseEntity<ApiResponse<BudgetResponse>> updateBudget(
             @PathVariable Long id,
             @Valid @RequestBody BudgetRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         BudgetResponse response = budgetService.updateBudget(id, request, userId);
 
         return ResponseEntity.ok(ApiResponse.success("Ngân sách đã được cập nhật thành công", response));
@@ -143,9 +136,8 @@ public class BudgetController {
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteBudget(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         budgetService.deleteBudget(id, userId);
 
         return ResponseEntity.ok(ApiResponse.success("Ngân sách đã được xóa thành công", null));
@@ -155,10 +147,9 @@ public class BudgetController {
 
     @GetMapping("/analytics/usage")
     public ResponseEntity<ApiResponse<List<BudgetUsageResponse>>> getBudgetUsageAnalytics(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         log.info("GET /api/budgets/analytics/usage called");
-        Long userId = extractUserIdFromToken(authHeader);
         List<BudgetUsageResponse> usage = budgetService.getBudgetUsageAnalytics(userId);
 
         return ResponseEntity.ok(ApiResponse.success("Đã tải thống kê sử dụng ngân sách", usage));
@@ -166,10 +157,9 @@ public class BudgetController {
 
     @GetMapping("/analytics/usage/current")
     public ResponseEntity<ApiResponse<List<BudgetUsageResponse>>> getCurrentMonthBudgetUsage(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         log.info("GET /api/budgets/analytics/usage/current called");
-        Long userId = extractUserIdFromToken(authHeader);
         List<BudgetUsageResponse> usage = budgetService.getCurrentMonthBudgetUsage(userId);
 
         return ResponseEntity.ok(ApiResponse.success("Đã tải thống kê sử dụng ngân sách tháng hiện tại", usage));
@@ -177,10 +167,9 @@ public class BudgetController {
 
     @GetMapping("/analytics/warnings")
     public ResponseEntity<ApiResponse<BudgetWarningResponse>> getBudgetWarnings(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         log.info("GET /api/budgets/analytics/warnings called");
-        Long userId = extractUserIdFromToken(authHeader);
         BudgetWarningResponse warnings = budgetService.getBudgetWarnings(userId);
 
         return ResponseEntity.ok(ApiResponse.success("Đã tải cảnh báo ngân sách", warnings));
@@ -188,10 +177,9 @@ public class BudgetController {
 
     @GetMapping("/analytics/performance")
     public ResponseEntity<ApiResponse<BudgetPerformanceResponse>> getBudgetPerformance(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         log.info("GET /api/budgets/analytics/performance called");
-        Long userId = extractUserIdFromToken(authHeader);
         BudgetPerformanceResponse performance = budgetService.getBudgetPerformance(userId);
 
         return ResponseEntity.ok(ApiResponse.success("Đã tải hiệu suất ngân sách", performance));
@@ -199,17 +187,11 @@ public class BudgetController {
 
     @GetMapping("/analytics/dashboard")
     public ResponseEntity<ApiResponse<BudgetDashboardResponse>> getBudgetDashboard(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         log.info("GET /api/budgets/analytics/dashboard called");
-        Long userId = extractUserIdFromToken(authHeader);
         BudgetDashboardResponse dashboard = budgetService.getBudgetDashboard(userId);
 
         return ResponseEntity.ok(ApiResponse.success("Đã tải tổng quan ngân sách", dashboard));
     }
-
-    private Long extractUserIdFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        return jwtUtil.extractUserId(token);
-    }
 }
\ No newline at end of file
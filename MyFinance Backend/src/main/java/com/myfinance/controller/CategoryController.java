@@ -4,8 +4,8 @@ import com.myfinance.dto.request.CategoryRequest;
 import com.myfinance.dto.response.ApiResponse;
 import com.myfinance.dto.response.CategoryResponse;
 import com.myfinance.entity.TransactionType;
+import com.myfinance.security.CurrentUserId;
 import com.myfinance.service.CategoryService;
-import com.myfinance.util.JwtUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -20,14 +20,12 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
-    private final JwtUtil jwtUtil;
 
     @PostMapping
     public ResponseEntity<ApiResponse<CategoryResponse>> createCategory(
             @Valid @RequestBody CategoryRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         CategoryResponse response = categoryService.createCategory(request, userId);
 
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -37,9 +35,8 @@ public class CategoryController {
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<CategoryResponse>> getCategory(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         CategoryResponse response = categoryService.getCategoryById(id, userId);
 
         return ResponseEntity.ok(ApiResponse.success(response));
@@ -47,10 +44,9 @@ public class CategoryController {
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<CategoryResponse>>> getUserCategories(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUserId Long userId,
             @RequestParam(required = false) String type) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         List<CategoryResponse> categories;
 
         if (type != null && !type.isEmpty()) {
@@ -67,9 +63,8 @@ public class CategoryController {
     public ResponseEntity<ApiResponse<CategoryResponse>> updateCategory(
             @PathVariable Long id,
             @Valid @RequestBody CategoryRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         CategoryResponse response = categoryService.updateCategory(id, request, userId);
 
         return ResponseEntity.ok(ApiResponse.success("Danh mục đã được cập nhật thành công", response));
@@ -78,16 +73,10 @@ public class CategoryController {
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteCategory(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         categoryService.deleteCategory(id, userId);
 
         return ResponseEntity.ok(ApiResponse.success("Danh mục đã được xóa thành công", null));
     }
-
-    private Long extractUserIdFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        return jwtUtil.extractUserId(token);
-    }
 }
\ No newline at end of file
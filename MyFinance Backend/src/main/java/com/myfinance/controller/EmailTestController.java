@@ -1,7 +1,7 @@
 package com.myfinance.controller;
 
 import com.myfinance.dto.response.ApiResponse;
-import com.myfinance.util.JwtUtil;
+import com.myfinance.security.CurrentUserId;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -18,7 +18,6 @@ import org.springframework.web.bind.annotation.*;
 public class EmailTestController {
 
     private final com.myfinance.service.ScheduledReportService scheduledReportService;
-    private final JwtUtil jwtUtil;
 
     /**
      * Test scheduled report email for current user
@@ -26,10 +25,9 @@ public class EmailTestController {
      */
     @GetMapping("/scheduled-report")
     public ResponseEntity<ApiResponse<String>> testScheduledReport(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
             scheduledReportService.sendTestScheduledReport(userId);
 
             return ResponseEntity.ok(
@@ -42,9 +40,4 @@ public class EmailTestController {
                     .body(ApiResponse.error("Không thể gửi email: " + e.getMessage()));
         }
     }
-
-    private Long extractUserIdFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        return jwtUtil.extractUserId(token);
-    }
 }
@@ -4,8 +4,8 @@ import com.myfinance.dto.request.CompleteStepRequest;
 import com.myfinance.dto.response.ApiResponse;
 import com.myfinance.dto.response.OnboardingProgressResponse;
 import com.myfinance.entity.OnboardingProgress;
+import com.myfinance.security.CurrentUserId;
 import com.myfinance.service.OnboardingProgressService;
-import com.myfinance.util.JwtUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -17,13 +17,11 @@ import org.springframework.web.bind.annotation.*;
 public class OnboardingProgressController {
 
     private final OnboardingProgressService onboardingService;
-    private final JwtUtil jwtUtil;
 
     @GetMapping("/progress")
     public ResponseEntity<ApiResponse<OnboardingProgressResponse>> getProgress(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         OnboardingProgress progress = onboardingService.getProgress(userId);
         OnboardingProgressResponse response = mapToResponse(progress);
 
@@ -33,9 +31,8 @@ public class OnboardingProgressController {
     @PostMapping("/complete-step")
     public ResponseEntity<ApiResponse<OnboardingProgressResponse>> completeStep(
             @Valid @RequestBody CompleteStepRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         OnboardingProgress progress = onboardingService.completeStep(userId, request.getStepNumber());
         OnboardingProgressResponse response = mapToResponse(progress);
 
@@ -44,9 +41,8 @@ public class OnboardingProgressController {
 
     @PostMapping("/complete")
     public ResponseEntity<ApiResponse<OnboardingProgressResponse>> completeOnboarding(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         OnboardingProgress progress = onboardingService.completeOnboarding(userId);
         OnboardingProgressResponse response = mapToResponse(progress);
 
@@ -55,9 +51,8 @@ public class OnboardingProgressController {
 
     @PostMapping("/skip")
     public ResponseEntity<ApiResponse<OnboardingProgressResponse>> skipOnboarding(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         OnboardingProgress progress = onboardingService.skipOnboarding(userId);
         OnboardingProgressResponse response = mapToResponse(progress);
 
@@ -66,20 +61,14 @@ public class OnboardingProgressController {
 
     @PostMapping("/restart")
     public ResponseEntity<ApiResponse<OnboardingProgressResponse>> restartOnboarding(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         OnboardingProgress progress = onboardingService.restartOnboarding(userId);
         OnboardingProgressResponse response = mapToResponse(progress);
 
         return ResponseEntity.ok(ApiResponse.success("Đã khởi động lại hướng dẫn", response));
     }
 
-    private Long extractUserIdFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        return jwtUtil.extractUserId(token);
-    }
-
     private OnboardingProgressResponse mapToResponse(OnboardingProgress progress) {
         return OnboardingProgressResponse.builder()
                 .id(progress.getId())
@@ -4,13 +4,18 @@ import com.myfinance.dto.response.ApiResponse;
 import com.myfinance.dto.response.CategoryReportResponse;
 import com.myfinance.dto.response.MonthlyReportResponse;
 import com.myfinance.dto.response.YearlyReportResponse;
+import com.myfinance.security.CurrentUserId;
+import com.myfinance.service.PDFReportGenerator;
 import com.myfinance.service.ReportService;
-import com.myfinance.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 
@@ -21,7 +26,7 @@ import java.time.LocalDate;
 public class ReportController {
 
     private final ReportService reportService;
-    private final JwtUtil jwtUtil;
+    private final PDFReportGenerator pdfReportGenerator;
 
     /**
      * Generate monthly financial summary report
@@ -31,11 +36,9 @@ public class ReportController {
     public ResponseEntity<ApiResponse<MonthlyReportResponse>> getMonthlyReport(
             @RequestParam Integer year,
             @RequestParam Integer month,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
-
             // Validate month
             if (month < 1 || month > 12) {
                 return ResponseEntity.badRequest()
@@ -66,11 +69,9 @@ public class ReportController {
     @GetMapping("/yearly")
     public ResponseEntity<ApiResponse<YearlyReportResponse>> getYearlyReport(
             @RequestParam Integer year,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
-
             // Validate year
             if (year < 2000 || year > 2100) {
                 return ResponseEntity.badRequest()
@@ -88,6 +89,65 @@ public class ReportController {
         }
     }
 
+    /**
+     * Download monthly report as PDF, streamed to the client as it is generated
+     * GET /api/reports/monthly/pdf?year=2025&month=9
+     */
+    @GetMapping("/monthly/pdf")
+    public ResponseEntity<?> downloadMonthlyReportPdf(
+            @RequestParam Integer year,
+            @RequestParam Integer month,
+            @CurrentUserId Long userId) {
+
+        try {
+            if (month < 1 || month > 12) {
+                return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Tháng không hợp lệ. Vui lòng nhập từ 1-12"));
+            }
+            if (year < 2000 || year > 2100) {
+                return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Năm không hợp lệ"));
+            }
+
+            MonthlyReportResponse report = reportService.generateMonthlySummary(userId, year, month);
+            StreamingResponseBody body = out -> pdfReportGenerator.writeMonthlyReportPDF(report, out);
+
+            return pdfResponse(String.format("bao-cao-thang-%d-%02d.pdf", year, month), body);
+
+        } catch (Exception e) {
+            log.error("Lỗi khi xuất PDF báo cáo tháng cho năm {} tháng {}", year, month, e);
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Lỗi hệ thống khi xuất PDF báo cáo tháng"));
+        }
+    }
+
+    /**
+     * Download yearly report as PDF, streamed to the client as it is generated
+     * GET /api/reports/yearly/pdf?year=2025
+     */
+    @GetMapping("/yearly/pdf")
+    public ResponseEntity<?> downloadYearlyReportPdf(
+            @RequestParam Integer year,
+            @CurrentUserId Long userId) {
+
+        try {
+            if (year < 2000 || year > 2100) {
+                return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Năm không hợp lệ"));
+            }
+
+            YearlyReportResponse report = reportService.generateYearlySummary(userId, year);
+            StreamingResponseBody body = out -> pdfReportGenerator.writeYearlyReportPDF(report, out);
+
+            return pdfResponse("bao-cao-nam-" + year + ".pdf", body);
+
+        } catch (Exception e) {
+            log.error("Lỗi khi xuất PDF báo cáo năm {}", year, e);
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Lỗi hệ thống khi xuất PDF báo cáo năm"));
+        }
+    }
+
     /**
      * Generate category-specific analysis report
      * GET /api/reports/category/{categoryId}?startDate=2025-01-01&endDate=2025-12-31
@@ -97,11 +157,9 @@ public class ReportController {
             @PathVariable Long categoryId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
-
             // Validate date range
             if (endDate.isBefore(startDate)) {
                 return ResponseEntity.badRequest()
@@ -129,11 +187,9 @@ public class ReportController {
      */
     @GetMapping("/current-month")
     public ResponseEntity<ApiResponse<MonthlyReportResponse>> getCurrentMonthReport(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
-
             LocalDate now = LocalDate.now();
             MonthlyReportResponse report = reportService.generateMonthlySummary(userId, now.getYear(), now.getMonthValue());
 
@@ -152,11 +208,9 @@ public class ReportController {
      */
     @GetMapping("/current-year")
     public ResponseEntity<ApiResponse<YearlyReportResponse>> getCurrentYearReport(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
-
             int currentYear = LocalDate.now().getYear();
             YearlyReportResponse report = reportService.generateYearlySummary(userId, currentYear);
 
@@ -177,11 +231,9 @@ public class ReportController {
     @GetMapping("/summary/{period}")
     public ResponseEntity<ApiResponse<?>> getSummaryReport(
             @PathVariable String period,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
-
             LocalDate now = LocalDate.now();
             Object report;
 
@@ -218,10 +270,12 @@ public class ReportController {
     }
 
     /**
-     * Extract user ID from JWT token
+     * Wrap a streaming body as a PDF attachment download
      */
-    private Long extractUserIdFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        return jwtUtil.extractUserId(token);
+    private ResponseEntity<StreamingResponseBody> pdfResponse(String filename, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_PDF)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
     }
 }
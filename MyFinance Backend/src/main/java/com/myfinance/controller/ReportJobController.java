@@ -0,0 +1,80 @@
+package com.myfinance.controller;
+
+import com.myfinance.dto.request.ReportJobRequest;
+import com.myfinance.dto.response.ApiResponse;
+import com.myfinance.dto.response.ReportJobResponse;
+import com.myfinance.security.CurrentUserId;
+import com.myfinance.service.ReportJobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/api/reports/jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    /**
+     * Submit a report generation job
+     * POST /api/reports/jobs
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<ReportJobResponse>> submitJob(
+            @Valid @RequestBody ReportJobRequest request,
+            @CurrentUserId Long userId) {
+
+        ReportJobResponse job = reportJobService.submit(userId, request);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Đã tiếp nhận yêu cầu tạo báo cáo", job));
+    }
+
+    /**
+     * Poll job status
+     * GET /api/reports/jobs/{jobId}
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<ReportJobResponse>> getJob(
+            @PathVariable String jobId,
+            @CurrentUserId Long userId) {
+
+        ReportJobResponse job = reportJobService.getJob(userId, jobId);
+
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
+
+    /**
+     * Download the generated artifact
+     * GET /api/reports/jobs/{jobId}/download
+     */
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<Resource> downloadArtifact(
+            @PathVariable String jobId,
+            @CurrentUserId Long userId) {
+
+        Path artifact = reportJobService.getArtifact(userId, jobId);
+        String filename = reportJobService.getDownloadFilename(userId, jobId);
+
+        MediaType contentType = MediaTypeFactory.getMediaType(filename)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(new FileSystemResource(artifact));
+    }
+}
@@ -2,8 +2,9 @@ package com.myfinance.controller;
 
 import com.myfinance.dto.response.ApiResponse;
 import com.myfinance.entity.ScheduledReport;
+import com.myfinance.exception.BadRequestException;
+import com.myfinance.security.CurrentUserId;
 import com.myfinance.service.ScheduledReportService;
-import com.myfinance.util.JwtUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,7 +21,6 @@ import java.util.List;
 public class ScheduledReportController {
 
     private final ScheduledReportService scheduledReportService;
-    private final JwtUtil jwtUtil;
 
     /**
      * Create a new scheduled report
@@ -29,11 +29,9 @@ public class ScheduledReportController {
     @PostMapping
     public ResponseEntity<ApiResponse<ScheduledReport>> createScheduledReport(
             @Valid @RequestBody ScheduledReportRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
-
             ScheduledReport report = scheduledReportService.createScheduledReport(
                     userId,
                     request.getReportType(),
@@ -61,10 +59,9 @@ public class ScheduledReportController {
      */
     @GetMapping
     public ResponseEntity<ApiResponse<List<ScheduledReport>>> getUserScheduledReports(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
             List<ScheduledReport> reports = scheduledReportService.getUserScheduledReports(userId);
 
             return ResponseEntity.ok(ApiResponse.success("Lấy danh sách báo cáo định kỳ thành công", reports));
@@ -75,6 +72,25 @@ public class ScheduledReportController {
         }
     }
 
+    /**
+     * Get scheduled reports that stopped after repeated failures
+     * GET /api/scheduled-reports/failed
+     */
+    @GetMapping("/failed")
+    public ResponseEntity<ApiResponse<List<ScheduledReport>>> getFailedScheduledReports(
+            @CurrentUserId Long userId) {
+
+        try {
+            List<ScheduledReport> reports = scheduledReportService.getFailedScheduledReports(userId);
+
+            return ResponseEntity.ok(ApiResponse.success("Lấy danh sách báo cáo định kỳ bị lỗi thành công", reports));
+        } catch (Exception e) {
+            log.error("Error fetching failed scheduled reports", e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Lỗi khi lấy danh sách báo cáo định kỳ bị lỗi"));
+        }
+    }
+
     /**
      * Get a specific scheduled report
      * GET /api/scheduled-reports/{id}
@@ -82,10 +98,9 @@ public class ScheduledReportController {
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<ScheduledReport>> getScheduledReport(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
             ScheduledReport report = scheduledReportService.getScheduledReport(id, userId);
 
             return ResponseEntity.ok(ApiResponse.success("Lấy báo cáo định kỳ thành công", report));
@@ -104,11 +119,9 @@ public class ScheduledReportController {
     public ResponseEntity<ApiResponse<ScheduledReport>> updateScheduledReport(
             @PathVariable Long id,
             @Valid @RequestBody ScheduledReportRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
-
             ScheduledReport report = scheduledReportService.updateScheduledReport(
                     id,
                     userId,
@@ -138,10 +151,9 @@ public class ScheduledReportController {
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteScheduledReport(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
             scheduledReportService.deleteScheduledReport(id, userId);
 
             return ResponseEntity.ok(ApiResponse.success("Xóa báo cáo định kỳ thành công", null));
@@ -159,10 +171,9 @@ public class ScheduledReportController {
     @PatchMapping("/{id}/toggle")
     public ResponseEntity<ApiResponse<ScheduledReport>> toggleScheduledReport(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
             ScheduledReport report = scheduledReportService.getScheduledReport(id, userId);
 
             report = scheduledReportService.updateScheduledReport(
@@ -188,6 +199,28 @@ public class ScheduledReportController {
         }
     }
 
+    /**
+     * Put a failed scheduled report back on the schedule
+     * POST /api/scheduled-reports/{id}/requeue
+     */
+    @PostMapping("/{id}/requeue")
+    public ResponseEntity<ApiResponse<ScheduledReport>> requeueScheduledReport(
+            @PathVariable Long id,
+            @CurrentUserId Long userId) {
+
+        try {
+            ScheduledReport report = scheduledReportService.requeueScheduledReport(id, userId);
+
+            return ResponseEntity.ok(ApiResponse.success("Đã đưa báo cáo định kỳ vào lịch chạy lại", report));
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error requeuing scheduled report {}", id, e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Lỗi khi chạy lại báo cáo định kỳ"));
+        }
+    }
+
     /**
      * Send report immediately (manual trigger)
      * POST /api/scheduled-reports/{id}/send-now
@@ -195,10 +228,9 @@ public class ScheduledReportController {
     @PostMapping("/{id}/send-now")
     public ResponseEntity<ApiResponse<Void>> sendReportNow(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
         try {
-            Long userId = extractUserIdFromToken(authHeader);
             ScheduledReport report = scheduledReportService.getScheduledReport(id, userId);
 
             // Check rate limiting (10-second cooldown)
@@ -221,12 +253,6 @@ public class ScheduledReportController {
         }
     }
 
-    // Helper method
-    private Long extractUserIdFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        return jwtUtil.extractUserId(token);
-    }
-
     // DTOs
     @lombok.Data
     public static class ScheduledReportRequest {
@@ -2,18 +2,24 @@ package com.myfinance.controller;
 
 import com.myfinance.dto.request.TransactionRequest;
 import com.myfinance.dto.response.ApiResponse;
+import com.myfinance.dto.response.TransactionPageResponse;
 import com.myfinance.dto.response.TransactionResponse;
 import com.myfinance.dto.response.TransactionStatsResponse;
 import com.myfinance.dto.response.CategoryResponse;
 import com.myfinance.entity.TransactionType;
+import com.myfinance.security.CurrentUserId;
+import com.myfinance.service.TransactionExportService;
 import com.myfinance.service.TransactionService;
 import com.myfinance.service.CategoryService;
-import com.myfinance.util.JwtUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -25,14 +31,13 @@ public class TransactionController {
 
     private final TransactionService transactionService;
     private final CategoryService categoryService;
-    private final JwtUtil jwtUtil;
+    private final TransactionExportService transactionExportService;
 
     @PostMapping("/add")
     public ResponseEntity<ApiResponse<TransactionResponse>> addTransaction(
             @Valid @RequestBody TransactionRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         TransactionResponse response = transactionService.createTransaction(request, userId);
 
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -42,9 +47,8 @@ public class TransactionController {
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<TransactionResponse>> getTransaction(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         TransactionResponse response = transactionService.getTransactionById(id, userId);
 
         return ResponseEntity.ok(ApiResponse.success(response));
@@ -52,10 +56,9 @@ public class TransactionController {
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<TransactionResponse>>> getUserTransactions(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUserId Long userId,
             @RequestParam(required = false) String type) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         List<TransactionResponse> transactions;
 
         if (type != null && !type.isEmpty()) {
@@ -70,10 +73,9 @@ public class TransactionController {
 
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<TransactionResponse>>> searchTransactions(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUserId Long userId,
             @RequestParam String searchTerm) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         List<TransactionResponse> transactions = transactionService.searchTransactions(userId, searchTerm);
 
         return ResponseEntity.ok(ApiResponse.success(transactions));
@@ -81,15 +83,13 @@ public class TransactionController {
 
     @GetMapping("/filter")
     public ResponseEntity<ApiResponse<List<TransactionResponse>>> getTransactionsWithFilters(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUserId Long userId,
             @RequestParam(required = false) String type,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false) String searchTerm) {
 
-        Long userId = extractUserIdFromToken(authHeader);
-        
         TransactionType transactionType = null;
         if (type != null && !type.isEmpty()) {
             transactionType = TransactionType.valueOf(type.toUpperCase());
@@ -111,11 +111,73 @@ public class TransactionController {
         return ResponseEntity.ok(ApiResponse.success(transactions));
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<TransactionPageResponse>> getTransactionPage(
+            @CurrentUserId Long userId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+
+        TransactionType transactionType = null;
+        if (type != null && !type.isEmpty()) {
+            transactionType = TransactionType.valueOf(type.toUpperCase());
+        }
+
+        LocalDate start = null;
+        if (startDate != null && !startDate.isEmpty()) {
+            start = LocalDate.parse(startDate);
+        }
+
+        LocalDate end = null;
+        if (endDate != null && !endDate.isEmpty()) {
+            end = LocalDate.parse(endDate);
+        }
+
+        TransactionPageResponse page = transactionService.getTransactionPage(
+                userId, transactionType, categoryId, start, end, searchTerm, cursor, size);
+
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+
+    /**
+     * Export the user's transactions (same filters as /filter), streamed row by row
+     * GET /api/transactions/export?format=csv|ndjson
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @CurrentUserId Long userId,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String searchTerm) {
+
+        TransactionExportService.ExportFormat exportFormat = TransactionExportService.ExportFormat.from(format);
+
+        TransactionType transactionType = (type != null && !type.isEmpty())
+                ? TransactionType.valueOf(type.toUpperCase()) : null;
+        LocalDate start = (startDate != null && !startDate.isEmpty()) ? LocalDate.parse(startDate) : null;
+        LocalDate end = (endDate != null && !endDate.isEmpty()) ? LocalDate.parse(endDate) : null;
+
+        StreamingResponseBody body = out -> transactionExportService.exportTransactions(
+                userId, transactionType, categoryId, start, end, searchTerm, exportFormat, out);
+
+        String filename = "giao-dich-" + LocalDate.now() + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
     @GetMapping("/recent")
     public ResponseEntity<ApiResponse<List<TransactionResponse>>> getRecentTransactions(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         List<TransactionResponse> transactions = transactionService.getRecentTransactions(userId);
 
         return ResponseEntity.ok(ApiResponse.success(transactions));
@@ -123,9 +185,8 @@ public class TransactionController {
 
     @GetMapping("/stats")
     public ResponseEntity<ApiResponse<TransactionStatsResponse>> getTransactionStats(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         TransactionStatsResponse stats = transactionService.getUserTransactionStats(userId);
 
         return ResponseEntity.ok(ApiResponse.success("Thống kê giao dịch", stats));
@@ -135,9 +196,8 @@ public class TransactionController {
     public ResponseEntity<ApiResponse<TransactionResponse>> updateTransaction(
             @PathVariable Long id,
             @Valid @RequestBody TransactionRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         TransactionResponse response = transactionService.updateTransaction(id, request, userId);
 
         return ResponseEntity.ok(ApiResponse.success("Giao dịch đã được cập nhật thành công", response));
@@ -146,9 +206,8 @@ public class TransactionController {
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteTransaction(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         transactionService.deleteTransaction(id, userId);
 
         return ResponseEntity.ok(ApiResponse.success("Giao dịch đã được xóa thành công", null));
@@ -156,10 +215,9 @@ public class TransactionController {
 
     @GetMapping("/categories")
     public ResponseEntity<ApiResponse<List<CategoryResponse>>> getCategories(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUserId Long userId,
             @RequestParam(required = false) String type) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         List<CategoryResponse> categories;
 
         if (type != null && !type.isEmpty()) {
@@ -171,9 +229,4 @@ public class TransactionController {
 
         return ResponseEntity.ok(ApiResponse.success(categories));
     }
-
-    private Long extractUserIdFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        return jwtUtil.extractUserId(token);
-    }
 }
\ No newline at end of file
@@ -4,8 +4,8 @@ import com.myfinance.dto.request.UserPreferencesRequest;
 import com.myfinance.dto.response.ApiResponse;
 import com.myfinance.dto.response.UserPreferencesResponse;
 import com.myfinance.entity.UserPreferences;
+import com.myfinance.security.CurrentUserId;
 import com.myfinance.service.UserPreferencesService;
-import com.myfinance.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,13 +16,11 @@ import org.springframework.web.bind.annotation.*;
 public class UserPreferencesController {
 
     private final UserPreferencesService preferencesService;
-    private final JwtUtil jwtUtil;
 
     @GetMapping
     public ResponseEntity<ApiResponse<UserPreferencesResponse>> getPreferences(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         UserPreferences preferences = preferencesService.getUserPreferences(userId);
         UserPreferencesResponse response = mapToResponse(preferences);
 
@@ -32,9 +30,8 @@ public class UserPreferencesController {
     @PutMapping
     public ResponseEntity<ApiResponse<UserPreferencesResponse>> updatePreferences(
             @RequestBody UserPreferencesRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         UserPreferences requestEntity = mapToEntity(request);
         UserPreferences updated = preferencesService.updatePreferences(userId, requestEntity);
         UserPreferencesResponse response = mapToResponse(updated);
@@ -44,29 +41,24 @@ public class UserPreferencesController {
 
     @PostMapping("/reset")
     public ResponseEntity<ApiResponse<UserPreferencesResponse>> resetToDefaults(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUserId Long userId) {
 
-        Long userId = extractUserIdFromToken(authHeader);
         UserPreferences preferences = preferencesService.resetToDefaults(userId);
         UserPreferencesResponse response = mapToResponse(preferences);
 
         return ResponseEntity.ok(ApiResponse.success("Cài đặt đã được đặt lại về mặc định", response));
     }
 
-    private Long extractUserIdFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        return jwtUtil.extractUserId(token);
-    }
-
     private UserPreferencesResponse mapToResponse(UserPreferences preferences) {
         return UserPreferencesResponse.builder()
                 .id(preferences.getId())
                 .userId(preferences.getUserId())
                 // Display Preferences (1 field)
                 .viewMode(preferences.getViewMode())
-                // Notification Preferences (2 fields)
+                // Notification Preferences (3 fields)
                 .emailNotifications(preferences.getEmailNotifications())
                 .budgetAlerts(preferences.getBudgetAlerts())
+                .budgetAlertDigest(Boolean.TRUE.equals(preferences.getBudgetAlertDigest())) // NULL for rows created before the column
                 .createdAt(preferences.getCreatedAt())
                 .updatedAt(preferences.getUpdatedAt())
                 .build();
@@ -76,9 +68,10 @@ public class UserPreferencesController {
         UserPreferences preferences = new UserPreferences();
         // Display Preferences (1 field)
         preferences.setViewMode(request.getViewMode());
-        // Notification Preferences (2 fields)
+        // Notification Preferences (3 fields)
         preferences.setEmailNotifications(request.getEmailNotifications());
         preferences.setBudgetAlerts(request.getBudgetAlerts());
+        preferences.setBudgetAlertDigest(request.getBudgetAlertDigest());
         return preferences;
     }
 }
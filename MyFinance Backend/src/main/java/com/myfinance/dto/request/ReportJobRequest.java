@@ -0,0 +1,27 @@
+package com.myfinance.dto.request;
+
+import com.myfinance.entity.ScheduledReport;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ReportJobRequest {
+
+    @NotNull(message = "Loại báo cáo không được để trống")
+    private ScheduledReport.ReportType reportType;
+
+    @NotNull(message = "Định dạng báo cáo không được để trống")
+    private ScheduledReport.ReportFormat format;
+
+    @NotNull(message = "Năm không được để trống")
+    @Min(value = 2000, message = "Năm không hợp lệ")
+    @Max(value = 2100, message = "Năm không hợp lệ")
+    private Integer year;
+
+    // Required for MONTHLY reports
+    @Min(value = 1, message = "Tháng phải từ 1-12")
+    @Max(value = 12, message = "Tháng phải từ 1-12")
+    private Integer month;
+}
@@ -7,7 +7,8 @@ public class UserPreferencesRequest {
     // Display Preferences (1 field)
     private String viewMode; // Controls budget view display (usage/basic)
 
-    // Notification Preferences (2 fields)
+    // Notification Preferences (3 fields)
     private Boolean emailNotifications; // Master email switch
     private Boolean budgetAlerts; // Budget alert emails
+    private Boolean budgetAlertDigest; // Daily digest instead of one email per alert
 }
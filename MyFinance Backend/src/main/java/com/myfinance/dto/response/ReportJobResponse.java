@@ -0,0 +1,24 @@
+package com.myfinance.dto.response;
+
+import com.myfinance.entity.ScheduledReport;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ReportJobResponse {
+    private String jobId;
+    private String status; // PENDING, RUNNING, COMPLETED, FAILED
+    private ScheduledReport.ReportType reportType;
+    private ScheduledReport.ReportFormat format;
+    private Integer year;
+    private Integer month;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+    private Long sizeBytes;
+    private String errorMessage;
+    private String downloadUrl;
+}
@@ -0,0 +1,15 @@
+package com.myfinance.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TransactionPageResponse {
+    private List<TransactionResponse> transactions;
+    private String nextCursor; // null when there are no more pages
+    private Boolean hasMore;
+    private Integer size;
+}
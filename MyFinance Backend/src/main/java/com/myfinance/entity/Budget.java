@@ -36,6 +36,11 @@ public class Budget {
     @Positive
     private BigDecimal budgetAmount;
 
+    // Written at insert, then only by the atomic adjust/reconcile UPDATEs in BudgetRepository,
+    // so saving a stale entity never overwrites concurrent increments
+    @Column(name = "spent_amount", precision = 15, scale = 2, updatable = false)
+    private BigDecimal spentAmount = BigDecimal.ZERO;
+
     @Column(name = "budget_year", nullable = false)
     @NotNull
     private Integer budgetYear;
@@ -50,6 +55,10 @@ public class Budget {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_alert_level", length = 20)
+    private BudgetAlertLevel lastAlertLevel = BudgetAlertLevel.NONE;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
@@ -72,6 +81,16 @@ public class Budget {
         return String.format("%04d-%02d", budgetYear, budgetMonth);
     }
 
+    // Helper method treating a missing counter as nothing spent
+    public BigDecimal getEffectiveSpentAmount() {
+        return spentAmount != null ? spentAmount : BigDecimal.ZERO;
+    }
+
+    // Helper method treating rows created before alert tracking as never alerted
+    public BudgetAlertLevel getEffectiveAlertLevel() {
+        return lastAlertLevel != null ? lastAlertLevel : BudgetAlertLevel.NONE;
+    }
+
     // Helper method to check if budget is for current month
     public boolean isCurrentMonth() {
         LocalDateTime now = LocalDateTime.now();
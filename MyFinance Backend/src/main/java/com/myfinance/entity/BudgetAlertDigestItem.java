@@ -0,0 +1,55 @@
+package com.myfinance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Budget alert held back for a user's daily digest email.
+ * Rows are written instead of an immediate alert email and removed when the digest is sent.
+ */
+@Entity
+@Table(name = "budget_alert_digest_items", indexes = {
+    @Index(name = "idx_budget_alert_digest_items_user_id", columnList = "user_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetAlertDigestItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "category_name", nullable = false, length = 100)
+    private String categoryName;
+
+    @Column(name = "budget_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal budgetAmount;
+
+    @Column(name = "actual_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal actualAmount;
+
+    @Column(name = "usage_percent", nullable = false)
+    private Double usagePercent;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
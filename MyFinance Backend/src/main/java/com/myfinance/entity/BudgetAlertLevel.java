@@ -0,0 +1,28 @@
+package com.myfinance.entity;
+
+/**
+ * Highest threshold level a budget has been alerted for, in ascending order.
+ * An alert email is only sent when usage crosses into a level above the stored one.
+ */
+public enum BudgetAlertLevel {
+    NONE,
+    WARNING,
+    CRITICAL,
+    OVER_BUDGET;
+
+    public static BudgetAlertLevel fromUsage(double usagePercentage, double warningThreshold, double criticalThreshold) {
+        if (usagePercentage >= 100.0) {
+            return OVER_BUDGET;
+        } else if (usagePercentage >= criticalThreshold) {
+            return CRITICAL;
+        } else if (usagePercentage >= warningThreshold) {
+            return WARNING;
+        } else {
+            return NONE;
+        }
+    }
+
+    public boolean isAbove(BudgetAlertLevel other) {
+        return compareTo(other) > 0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.myfinance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rendered email waiting for SMTP delivery.
+ * Rows are written in the same transaction as the business change that triggers them
+ * and drained in batches by EmailOutboxService, so mail survives restarts.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_email_outbox_claim_token", columnList = "claim_token")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "html_body", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String htmlBody;
+
+    @Column(name = "attachment", columnDefinition = "LONGBLOB")
+    private byte[] attachment;
+
+    @Column(name = "attachment_name")
+    private String attachmentName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // Sending lease across backend instances; written only by the claim queries
+    @Column(name = "claim_token", length = 36, insertable = false, updatable = false)
+    private String claimToken;
+
+    @Column(name = "claimed_until", insertable = false, updatable = false)
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+
+    public enum Status {
+        PENDING,
+        SENT,
+        FAILED // Attempts exhausted
+    }
+}
@@ -1,5 +1,6 @@
 package com.myfinance.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -65,6 +66,25 @@ public class ScheduledReport {
     @Column(name = "last_manual_send")
     private LocalDateTime lastManualSend; // Last manual "Send Now" trigger (for rate limiting)
 
+    @Column(name = "failure_count")
+    @Builder.Default
+    private Integer failureCount = 0; // Consecutive failed runs, reset on success
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "dead_lettered_at")
+    private LocalDateTime deadLetteredAt; // Set when retries are exhausted; cleared by a requeue or a successful run
+
+    // Execution lease across backend instances; written only by the claim/release queries
+    @JsonIgnore
+    @Column(name = "claim_token", length = 36, insertable = false, updatable = false)
+    private String claimToken;
+
+    @JsonIgnore
+    @Column(name = "claimed_until", insertable = false, updatable = false)
+    private LocalDateTime claimedUntil;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
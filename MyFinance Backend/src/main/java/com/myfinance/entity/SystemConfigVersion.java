@@ -0,0 +1,25 @@
+package com.myfinance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row change counter for system_config.
+ * Bumped in the same transaction as every config write, so other instances can detect changes
+ * by polling one number instead of reloading all configs.
+ */
+@Entity
+@Table(name = "system_config_version")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SystemConfigVersion {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
@@ -12,7 +12,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    @Index(name = "idx_transactions_user_category_date", columnList = "user_id, category_id, transaction_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
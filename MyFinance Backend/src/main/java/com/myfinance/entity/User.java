@@ -64,6 +64,11 @@ public class User implements UserDetails {
     @Column(name = "login_count")
     private Long loginCount = 0L;
 
+    // Tokens issued before this moment are rejected (logout, password change);
+    // written only by UserRepository.updateTokensValidAfter
+    @Column(name = "tokens_valid_after", insertable = false, updatable = false)
+    private LocalDateTime tokensValidAfter;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
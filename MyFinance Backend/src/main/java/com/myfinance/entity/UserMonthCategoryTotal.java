@@ -0,0 +1,67 @@
+package com.myfinance.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Per-user monthly rollup of transactions by category and type.
+ * Maintained by TransactionService on every write so reports can read
+ * O(categories) rows instead of re-scanning raw transactions.
+ */
+@Entity
+@Table(name = "user_month_category_totals", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "period_year", "period_month", "category_id", "type"})
+}, indexes = {
+    @Index(name = "idx_month_totals_period", columnList = "period_year, period_month")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserMonthCategoryTotal {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    @NotNull
+    private Long userId;
+
+    @Column(name = "period_year", nullable = false)
+    @NotNull
+    private Integer periodYear;
+
+    @Column(name = "period_month", nullable = false)
+    @NotNull
+    private Integer periodMonth; // 1-12
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "category_id", nullable = false)
+    @NotNull
+    private Category category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @NotNull
+    private TransactionType type;
+
+    @Column(name = "total_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount = 0L;
+
+    @Column(name = "min_amount", precision = 12, scale = 2)
+    private BigDecimal minAmount;
+
+    @Column(name = "max_amount", precision = 12, scale = 2)
+    private BigDecimal maxAmount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -24,13 +24,16 @@ public class UserPreferences {
     @Column(name = "view_mode")
     private String viewMode = "detailed"; // Controls budget view display (usage/basic)
 
-    // Notification Preferences (2 fields)
+    // Notification Preferences (3 fields)
     @Column(name = "email_notifications")
     private Boolean emailNotifications = true; // Master email switch
 
     @Column(name = "budget_alerts")
     private Boolean budgetAlerts = true; // Budget alert emails
 
+    @Column(name = "budget_alert_digest")
+    private Boolean budgetAlertDigest = false; // Collect budget alerts into one daily email
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
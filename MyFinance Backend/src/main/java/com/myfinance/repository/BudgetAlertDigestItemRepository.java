@@ -0,0 +1,27 @@
+package com.myfinance.repository;
+
+import com.myfinance.entity.BudgetAlertDigestItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BudgetAlertDigestItemRepository extends JpaRepository<BudgetAlertDigestItem, Long> {
+
+    @Query("SELECT DISTINCT i.userId FROM BudgetAlertDigestItem i")
+    List<Long> findUserIdsWithPendingItems();
+
+    List<BudgetAlertDigestItem> findByUserIdOrderByIdAsc(Long userId);
+
+    /**
+     * Delete the given items; the returned count tells whether another instance already took them
+     */
+    @Modifying
+    @Query("DELETE FROM BudgetAlertDigestItem i WHERE i.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -1,12 +1,15 @@
 package com.myfinance.repository;
 
 import com.myfinance.entity.Budget;
+import com.myfinance.entity.BudgetAlertLevel;
 import com.myfinance.entity.TransactionType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -62,6 +65,45 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
                                    @Param("year") Integer year,
                                    @Param("month") Integer month);
 
+    // Atomically adjust the spent counter of the budget covering an expense (active or not)
+    @Modifying
+    @Query(value = "UPDATE budgets SET spent_amount = COALESCE(spent_amount, 0) + :delta " +
+                   "WHERE user_id = :userId AND category_id = :categoryId " +
+                   "AND budget_year = :year AND budget_month = :month",
+           nativeQuery = true)
+    int adjustSpentAmount(@Param("userId") Long userId,
+                          @Param("categoryId") Long categoryId,
+                          @Param("year") Integer year,
+                          @Param("month") Integer month,
+                          @Param("delta") BigDecimal delta);
+
+    // Rebuild every spent counter from raw expense transactions
+    @Modifying
+    @Query(value = "UPDATE budgets b SET b.spent_amount = (" +
+                   "SELECT COALESCE(SUM(t.amount), 0) FROM transactions t " +
+                   "WHERE t.user_id = b.user_id AND t.category_id = b.category_id AND t.type = 'EXPENSE' " +
+                   "AND YEAR(t.transaction_date) = b.budget_year AND MONTH(t.transaction_date) = b.budget_month)",
+           nativeQuery = true)
+    int reconcileSpentAmounts();
+
+    // Budgets created before the spent counter existed
+    boolean existsBySpentAmountIsNull();
+
+    // Rebuild the spent counter of one budget, e.g. after its category or period changed
+    @Modifying
+    @Query(value = "UPDATE budgets b SET b.spent_amount = (" +
+                   "SELECT COALESCE(SUM(t.amount), 0) FROM transactions t " +
+                   "WHERE t.user_id = b.user_id AND t.category_id = b.category_id AND t.type = 'EXPENSE' " +
+                   "AND YEAR(t.transaction_date) = b.budget_year AND MONTH(t.transaction_date) = b.budget_month) " +
+                   "WHERE b.id = :budgetId",
+           nativeQuery = true)
+    int reconcileSpentAmount(@Param("budgetId") Long budgetId);
+
+    // Record the alert level without writing the rest of the entity
+    @Modifying
+    @Query("UPDATE Budget b SET b.lastAlertLevel = :level WHERE b.id = :budgetId")
+    int updateLastAlertLevel(@Param("budgetId") Long budgetId, @Param("level") BudgetAlertLevel level);
+
     // Admin functionality methods
     Long countByUserId(Long userId);
 }
\ No newline at end of file
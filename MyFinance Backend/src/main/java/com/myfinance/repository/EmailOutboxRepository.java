@@ -0,0 +1,69 @@
+package com.myfinance.repository;
+
+import com.myfinance.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Claim up to :limit pending emails for one send batch. The single UPDATE is atomic, so concurrent
+     * instances never claim the same row; claims left by a crashed instance become claimable after expiry.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE email_outbox SET claim_token = :token, claimed_until = :claimedUntil " +
+                   "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+                   "AND (claimed_until IS NULL OR claimed_until < :now) " +
+                   "ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    int claimBatch(@Param("now") LocalDateTime now,
+                   @Param("claimedUntil") LocalDateTime claimedUntil,
+                   @Param("token") String token,
+                   @Param("limit") int limit);
+
+    /**
+     * Emails claimed with the given token
+     */
+    List<EmailOutbox> findByClaimTokenOrderById(String claimToken);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE email_outbox SET status = 'SENT', sent_at = :sentAt, attempts = attempts + 1, " +
+                   "last_error = NULL, claim_token = NULL, claimed_until = NULL WHERE id IN (:ids)",
+           nativeQuery = true)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Record a failed attempt; the row stays PENDING until :nextAttemptAt, or becomes FAILED
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE email_outbox SET status = :status, attempts = :attempts, last_error = :lastError, " +
+                   "next_attempt_at = :nextAttemptAt, claim_token = NULL, claimed_until = NULL WHERE id = :id",
+           nativeQuery = true)
+    int markFailedAttempt(@Param("id") Long id,
+                          @Param("status") String status,
+                          @Param("attempts") int attempts,
+                          @Param("lastError") String lastError,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    long countByStatus(EmailOutbox.Status status);
+
+    /**
+     * Purge delivered emails older than the retention window
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM email_outbox WHERE status = 'SENT' AND sent_at < :cutoff", nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,16 +2,26 @@ package com.myfinance.repository;
 
 import com.myfinance.entity.ScheduledReport;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ScheduledReportRepository extends JpaRepository<ScheduledReport, Long> {
 
+    // Projection for the in-memory schedule
+    interface ScheduleSlot {
+        Long getId();
+        LocalDateTime getNextRun();
+    }
+
     /**
      * Find all scheduled reports for a user
      */
@@ -28,6 +38,78 @@ public interface ScheduledReportRepository extends JpaRepository<ScheduledReport
     @Query("SELECT sr FROM ScheduledReport sr WHERE sr.isActive = true AND sr.nextRun <= :currentTime")
     List<ScheduledReport> findDueReports(LocalDateTime currentTime);
 
+    /**
+     * Next run of every active report (loads the in-memory schedule)
+     */
+    @Query("SELECT sr.id AS id, sr.nextRun AS nextRun FROM ScheduledReport sr " +
+           "WHERE sr.isActive = true AND sr.nextRun IS NOT NULL AND sr.deadLetteredAt IS NULL")
+    List<ScheduleSlot> findActiveSchedule();
+
+    /**
+     * Claim the given reports if they are still due and unclaimed. The single UPDATE is atomic, so concurrent
+     * instances never claim the same row; claims left by a crashed instance become claimable after expiry.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduled_reports SET claim_token = :token, claimed_until = :claimedUntil " +
+                   "WHERE id IN (:ids) AND is_active = true AND dead_lettered_at IS NULL AND next_run <= :now " +
+                   "AND (claimed_until IS NULL OR claimed_until < :now)",
+           nativeQuery = true)
+    int claimReports(@Param("ids") Collection<Long> ids,
+                     @Param("now") LocalDateTime now,
+                     @Param("claimedUntil") LocalDateTime claimedUntil,
+                     @Param("token") String token);
+
+    /**
+     * Reports claimed with the given token
+     */
+    List<ScheduledReport> findByClaimTokenOrderByNextRun(String claimToken);
+
+    /**
+     * Release a claim held by the given token
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduled_reports SET claim_token = NULL, claimed_until = NULL " +
+                   "WHERE id = :id AND claim_token = :token",
+           nativeQuery = true)
+    int releaseClaim(@Param("id") Long id, @Param("token") String token);
+
+    /**
+     * Record a completed run in its own short transaction, without overwriting concurrent schedule edits
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScheduledReport sr SET sr.lastRun = :lastRun, sr.nextRun = :nextRun, " +
+           "sr.runCount = COALESCE(sr.runCount, 0) + 1, " +
+           "sr.failureCount = 0, sr.lastError = NULL, sr.deadLetteredAt = NULL WHERE sr.id = :id")
+    int recordRun(@Param("id") Long id, @Param("lastRun") LocalDateTime lastRun, @Param("nextRun") LocalDateTime nextRun);
+
+    /**
+     * Record a failed run and move the next attempt to the backoff time
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScheduledReport sr SET sr.failureCount = :failureCount, sr.lastError = :lastError, " +
+           "sr.nextRun = :retryAt WHERE sr.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("failureCount") int failureCount,
+                      @Param("lastError") String lastError, @Param("retryAt") LocalDateTime retryAt);
+
+    /**
+     * Park a report whose retries are exhausted; it is not run again until requeued
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScheduledReport sr SET sr.failureCount = :failureCount, sr.lastError = :lastError, " +
+           "sr.deadLetteredAt = :deadLetteredAt, sr.nextRun = NULL WHERE sr.id = :id")
+    int recordDeadLetter(@Param("id") Long id, @Param("failureCount") int failureCount,
+                         @Param("lastError") String lastError, @Param("deadLetteredAt") LocalDateTime deadLetteredAt);
+
+    /**
+     * Dead-lettered reports of a user
+     */
+    List<ScheduledReport> findByUserIdAndDeadLetteredAtIsNotNullOrderByDeadLetteredAtDesc(Long userId);
+
     /**
      * Find all active reports
      */
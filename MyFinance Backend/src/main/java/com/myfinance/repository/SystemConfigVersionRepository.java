@@ -0,0 +1,30 @@
+package com.myfinance.repository;
+
+import com.myfinance.entity.SystemConfigVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface SystemConfigVersionRepository extends JpaRepository<SystemConfigVersion, Integer> {
+
+    @Query(value = "SELECT version FROM system_config_version WHERE id = 1", nativeQuery = true)
+    Optional<Long> findCurrentVersion();
+
+    /**
+     * Joins the config write's transaction, so the new version is visible together with the change
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE system_config_version SET version = version + 1 WHERE id = 1", nativeQuery = true)
+    int incrementVersion();
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO system_config_version (id, version) VALUES (1, 0)", nativeQuery = true)
+    int ensureExists();
+}
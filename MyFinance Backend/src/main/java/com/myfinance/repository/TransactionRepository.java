@@ -2,18 +2,41 @@ package com.myfinance.repository;
 
 import com.myfinance.entity.Transaction;
 import com.myfinance.entity.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
+    // Projection for per-type aggregates
+    interface TypeTotal {
+        TransactionType getType();
+        BigDecimal getTotal();
+        Long getCount();
+    }
+
+    // Projection for per-month aggregates of one category
+    interface MonthTotal {
+        Integer getPeriodYear();
+        Integer getPeriodMonth();
+        BigDecimal getTotal();
+        Long getCount();
+        BigDecimal getMinAmount();
+        BigDecimal getMaxAmount();
+    }
+
     // Find transaction by ID and user ID (for security)
     Optional<Transaction> findByIdAndUserId(Long id, Long userId);
 
@@ -38,6 +61,17 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     // Find transactions by category
     List<Transaction> findByUserIdAndCategoryIdOrderByTransactionDateDesc(Long userId, Long categoryId);
 
+    // Per-month sum/count/min/max of a category within a date range (category report)
+    @Query("SELECT YEAR(t.transactionDate) AS periodYear, MONTH(t.transactionDate) AS periodMonth, " +
+           "SUM(t.amount) AS total, COUNT(t) AS count, MIN(t.amount) AS minAmount, MAX(t.amount) AS maxAmount " +
+           "FROM Transaction t WHERE t.userId = :userId AND t.category.id = :categoryId " +
+           "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY YEAR(t.transactionDate), MONTH(t.transactionDate)")
+    List<MonthTotal> sumByMonthForCategory(@Param("userId") Long userId,
+                                           @Param("categoryId") Long categoryId,
+                                           @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate);
+
     // Count transactions by category
     long countByUserIdAndCategoryId(Long userId, Long categoryId);
 
@@ -66,6 +100,54 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                                                  @Param("endDate") LocalDate endDate,
                                                  @Param("searchTerm") String searchTerm);
 
+    // Keyset page with the same filters, seeking past (cursorDate, cursorId) in (transaction_date DESC, id DESC) order
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.category WHERE t.userId = :userId " +
+           "AND (:type IS NULL OR t.type = :type) " +
+           "AND (:categoryId IS NULL OR t.category.id = :categoryId) " +
+           "AND (:startDate IS NULL OR t.transactionDate >= :startDate) " +
+           "AND (:endDate IS NULL OR t.transactionDate <= :endDate) " +
+           "AND (:searchTerm IS NULL OR " +
+           "LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "CAST(t.amount AS string) LIKE CONCAT('%', :searchTerm, '%')) " +
+           "AND (:cursorDate IS NULL OR t.transactionDate < :cursorDate OR " +
+           "(t.transactionDate = :cursorDate AND t.id < :cursorId)) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findTransactionPage(@Param("userId") Long userId,
+                                          @Param("type") TransactionType type,
+                                          @Param("categoryId") Long categoryId,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          @Param("searchTerm") String searchTerm,
+                                          @Param("cursorDate") LocalDate cursorDate,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
+
+    // Filtered export stream; Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the result
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.category WHERE t.userId = :userId " +
+           "AND (:type IS NULL OR t.type = :type) " +
+           "AND (:categoryId IS NULL OR t.category.id = :categoryId) " +
+           "AND (:startDate IS NULL OR t.transactionDate >= :startDate) " +
+           "AND (:endDate IS NULL OR t.transactionDate <= :endDate) " +
+           "AND (:searchTerm IS NULL OR " +
+           "LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "CAST(t.amount AS string) LIKE CONCAT('%', :searchTerm, '%')) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    Stream<Transaction> streamTransactionsForExport(@Param("userId") Long userId,
+                                                    @Param("type") TransactionType type,
+                                                    @Param("categoryId") Long categoryId,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate,
+                                                    @Param("searchTerm") String searchTerm);
+
+    // Sum and count of a user's transactions grouped by type (dashboard stats)
+    @Query("SELECT t.type AS type, COALESCE(SUM(t.amount), 0) AS total, COUNT(t) AS count " +
+           "FROM Transaction t WHERE t.userId = :userId GROUP BY t.type")
+    List<TypeTotal> sumByTypeForUser(@Param("userId") Long userId);
+
     // Admin functionality methods
     Long countByUserId(Long userId);
 
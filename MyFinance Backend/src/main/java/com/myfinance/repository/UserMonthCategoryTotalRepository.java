@@ -0,0 +1,103 @@
+package com.myfinance.repository;
+
+import com.myfinance.entity.TransactionType;
+import com.myfinance.entity.UserMonthCategoryTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserMonthCategoryTotalRepository extends JpaRepository<UserMonthCategoryTotal, Long> {
+
+    // Rollup rows for one month
+    List<UserMonthCategoryTotal> findByUserIdAndPeriodYearAndPeriodMonth(Long userId, Integer periodYear, Integer periodMonth);
+
+    // Rollup rows for a whole year
+    List<UserMonthCategoryTotal> findByUserIdAndPeriodYearOrderByPeriodMonth(Long userId, Integer periodYear);
+
+    // Single bucket (e.g. actual spending for one budget)
+    Optional<UserMonthCategoryTotal> findByUserIdAndPeriodYearAndPeriodMonthAndCategoryIdAndType(
+            Long userId, Integer periodYear, Integer periodMonth, Long categoryId, TransactionType type);
+
+    // Rollup rows of all users for an inclusive month range; the year bound is a range scan on idx_month_totals_period
+    @Query("SELECT r FROM UserMonthCategoryTotal r " +
+           "WHERE r.periodYear BETWEEN :fromYear AND :toYear " +
+           "AND (r.periodYear > :fromYear OR r.periodMonth >= :fromMonth) " +
+           "AND (r.periodYear < :toYear OR r.periodMonth <= :toMonth)")
+    List<UserMonthCategoryTotal> findAllInMonthRange(@Param("fromYear") int fromYear,
+                                                     @Param("fromMonth") int fromMonth,
+                                                     @Param("toYear") int toYear,
+                                                     @Param("toMonth") int toMonth);
+
+    // Atomically add one transaction to its bucket, creating the bucket if needed
+    @Modifying
+    @Query(value = "INSERT INTO user_month_category_totals " +
+                   "(user_id, period_year, period_month, category_id, type, total_amount, transaction_count, min_amount, max_amount, updated_at) " +
+                   "VALUES (:userId, :year, :month, :categoryId, :type, :amount, 1, :amount, :amount, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "total_amount = total_amount + VALUES(total_amount), " +
+                   "transaction_count = transaction_count + 1, " +
+                   "min_amount = LEAST(COALESCE(min_amount, VALUES(min_amount)), VALUES(min_amount)), " +
+                   "max_amount = GREATEST(COALESCE(max_amount, VALUES(max_amount)), VALUES(max_amount)), " +
+                   "updated_at = NOW()",
+           nativeQuery = true)
+    int addToBucket(@Param("userId") Long userId,
+                    @Param("year") Integer year,
+                    @Param("month") Integer month,
+                    @Param("categoryId") Long categoryId,
+                    @Param("type") String type,
+                    @Param("amount") BigDecimal amount);
+
+    // Atomically remove one transaction from its bucket
+    @Modifying
+    @Query(value = "UPDATE user_month_category_totals " +
+                   "SET total_amount = total_amount - :amount, transaction_count = transaction_count - 1, updated_at = NOW() " +
+                   "WHERE user_id = :userId AND period_year = :year AND period_month = :month " +
+                   "AND category_id = :categoryId AND type = :type",
+           nativeQuery = true)
+    int removeFromBucket(@Param("userId") Long userId,
+                         @Param("year") Integer year,
+                         @Param("month") Integer month,
+                         @Param("categoryId") Long categoryId,
+                         @Param("type") String type,
+                         @Param("amount") BigDecimal amount);
+
+    // Recompute min/max of one bucket from its raw rows (bounded by one month of one category)
+    @Modifying
+    @Query(value = "UPDATE user_month_category_totals r " +
+                   "SET r.min_amount = (SELECT MIN(t.amount) FROM transactions t WHERE t.user_id = :userId " +
+                   "AND t.category_id = :categoryId AND t.type = :type " +
+                   "AND t.transaction_date BETWEEN :startDate AND :endDate), " +
+                   "r.max_amount = (SELECT MAX(t.amount) FROM transactions t WHERE t.user_id = :userId " +
+                   "AND t.category_id = :categoryId AND t.type = :type " +
+                   "AND t.transaction_date BETWEEN :startDate AND :endDate) " +
+                   "WHERE r.user_id = :userId AND r.period_year = :year AND r.period_month = :month " +
+                   "AND r.category_id = :categoryId AND r.type = :type",
+           nativeQuery = true)
+    int refreshBucketExtremes(@Param("userId") Long userId,
+                              @Param("year") Integer year,
+                              @Param("month") Integer month,
+                              @Param("categoryId") Long categoryId,
+                              @Param("type") String type,
+                              @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate);
+
+    // Drop a bucket once it no longer contains any transaction
+    @Modifying
+    @Query(value = "DELETE FROM user_month_category_totals " +
+                   "WHERE user_id = :userId AND period_year = :year AND period_month = :month " +
+                   "AND category_id = :categoryId AND type = :type AND transaction_count <= 0",
+           nativeQuery = true)
+    int deleteIfEmpty(@Param("userId") Long userId,
+                      @Param("year") Integer year,
+                      @Param("month") Integer month,
+                      @Param("categoryId") Long categoryId,
+                      @Param("type") String type);
+}
@@ -19,6 +19,20 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     // Find user by email
     Optional<User> findByEmail(String email);
 
+    interface AuthStatus {
+        Boolean getIsActive();
+        LocalDateTime getTokensValidAfter();
+    }
+
+    // Active flag and token cutoff only (per-request status check)
+    @Query("SELECT u.isActive AS isActive, u.tokensValidAfter AS tokensValidAfter FROM User u WHERE u.id = :userId")
+    Optional<AuthStatus> findAuthStatusById(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.tokensValidAfter = :validAfter WHERE u.id = :userId")
+    int updateTokensValidAfter(@Param("userId") Long userId, @Param("validAfter") LocalDateTime validAfter);
+
     // Find all users by active status
     List<User> findByIsActive(Boolean isActive);
 
@@ -2,7 +2,7 @@ package com.myfinance.security;
 
 import com.myfinance.service.AuditService;
 import com.myfinance.service.RoleService;
-import com.myfinance.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +19,6 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 @Slf4j
 public class AdminAuthorizationAspect {
 
-    private final JwtUtil jwtUtil;
     private final RoleService roleService;
     private final AuditService auditService;
 
@@ -40,16 +39,15 @@ public class AdminAuthorizationAspect {
             throw new SecurityException("Token không hợp lệ");
         }
 
-        String token = authHeader.replace("Bearer ", "");
-
         try {
-            // Validate token
-            if (!jwtUtil.validateToken(token)) {
+            // Claims verified by JwtRequestFilter; absent when the token was invalid or expired
+            Claims claims = (Claims) request.getAttribute(JwtRequestFilter.CLAIMS_ATTRIBUTE);
+            if (claims == null) {
                 logUnauthorizedAccess("INVALID_TOKEN", ipAddress, userAgent, joinPoint.getSignature().getName());
                 throw new SecurityException("Token không hợp lệ hoặc đã hết hạn");
             }
 
-            Long userId = jwtUtil.extractUserId(token);
+            Long userId = claims.get("userId", Long.class);
             if (userId == null) {
                 logUnauthorizedAccess("NO_USER_ID", ipAddress, userAgent, joinPoint.getSignature().getName());
                 throw new SecurityException("Không thể xác định người dùng");
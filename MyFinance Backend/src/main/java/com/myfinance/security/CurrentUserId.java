@@ -0,0 +1,15 @@
+package com.myfinance.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the authenticated user's id into a controller method parameter (Long)
+ * Resolved from the JWT claims parsed once by JwtRequestFilter
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUserId {
+}
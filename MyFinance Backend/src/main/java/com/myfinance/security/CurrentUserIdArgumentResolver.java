@@ -0,0 +1,36 @@
+package com.myfinance.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves @CurrentUserId parameters from the claims stored on the request by JwtRequestFilter,
+ * so controllers never parse or verify the token again
+ */
+public class CurrentUserIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUserId.class)
+                && Long.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        Claims claims = request != null ? (Claims) request.getAttribute(JwtRequestFilter.CLAIMS_ATTRIBUTE) : null;
+        Long userId = claims != null ? claims.get("userId", Long.class) : null;
+
+        if (userId == null) {
+            throw new AuthenticationCredentialsNotFoundException("Không thể xác định người dùng");
+        }
+        return userId;
+    }
+}
@@ -0,0 +1,16 @@
+package com.myfinance.security;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Authenticated user built from verified JWT claims, without loading the User entity.
+ * getName() returns the email, so authentication.getName() behaves as with the User principal.
+ */
+public record JwtPrincipal(Long userId, String email, List<String> roles) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,13 +1,18 @@
 package com.myfinance.security;
 
+import com.myfinance.service.UserStatusService;
 import com.myfinance.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -16,14 +21,27 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtRequestFilter extends OncePerRequestFilter {
 
+    // Request attribute holding the verified Claims, so the token is parsed once per request
+    public static final String CLAIMS_ATTRIBUTE = JwtRequestFilter.class.getName() + ".claims";
+
     private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
+    private final UserStatusService userStatusService;
+
+    // true: authenticate from the token's claims; false: load the user from the database on every request
+    @Value("${app.security.claims-auth.enabled:true}")
+    private boolean claimsAuthEnabled;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -31,36 +49,91 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
-
         // JWT Token is in the form "Bearer token"
-        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwtToken);
-            } catch (Exception e) {
-                log.error("Unable to get JWT Token: {}", e.getMessage());
-            }
-        }
+        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwtToken = requestTokenHeader.substring(7);
 
-        // Once we get the token validate it
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            // If token is valid configure Spring Security to manually set authentication
-            if (jwtUtil.validateToken(jwtToken, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                usernamePasswordAuthenticationToken
-                        .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                // After setting the Authentication in the context, we specify
-                // that the current user is authenticated. So it passes the Spring Security Configurations successfully.
-                SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+            if (claimsAuthEnabled) {
+                authenticateFromClaims(jwtToken, request);
+            } else {
+                authenticateFromUserDetails(jwtToken, request);
             }
         }
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Build the Authentication from verified claims; only the (cached) active flag and token cutoff are checked
+     */
+    private void authenticateFromClaims(String jwtToken, HttpServletRequest request) {
+        Claims claims;
+        Long userId;
+        try {
+            // One parse verifies the signature and expiry
+            claims = jwtUtil.extractClaim(jwtToken, Function.identity());
+            userId = claims.get("userId", Long.class);
+        } catch (Exception e) {
+            log.error("Unable to get JWT Token: {}", e.getMessage());
+            return;
+        }
+
+        String email = claims.getSubject();
+        if (userId == null || email == null) {
+            return;
+        }
+
+        if (!userStatusService.isTokenAccepted(userId, claims.getIssuedAt())) {
+            log.warn("Rejected revoked token or token of inactive or deleted user: {}", userId);
+            return;
+        }
+
+        List<String> roles = new ArrayList<>();
+        if (claims.get("roles") instanceof List<?> claimRoles) {
+            claimRoles.forEach(role -> roles.add(String.valueOf(role)));
+        }
+
+        // Same base authority as User.getAuthorities(), plus the signed role claims
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+        roles.forEach(role -> authorities.add(new SimpleGrantedAuthority("ROLE_" + role)));
+
+        setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(userId, email, List.copyOf(roles)), null, authorities), claims, request);
+    }
+
+    private void authenticateFromUserDetails(String jwtToken, HttpServletRequest request) {
+        Claims claims;
+        try {
+            // Parsing verifies the signature and rejects expired tokens
+            claims = jwtUtil.extractClaim(jwtToken, Function.identity());
+        } catch (Exception e) {
+            log.error("Unable to get JWT Token: {}", e.getMessage());
+            return;
+        }
+
+        Long userId = claims.get("userId", Long.class);
+        if (userId != null && !userStatusService.isTokenAccepted(userId, claims.getIssuedAt())) {
+            log.warn("Rejected revoked token or token of inactive or deleted user: {}", userId);
+            return;
+        }
+
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+
+        // If token is valid configure Spring Security to manually set authentication
+        if (userDetails.getUsername().equals(claims.getSubject())) {
+            setAuthentication(new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities()), claims, request);
+        }
+    }
+
+    private void setAuthentication(UsernamePasswordAuthenticationToken authentication, Claims claims,
+                                   HttpServletRequest request) {
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+
+        // After setting the Authentication in the context, we specify
+        // that the current user is authenticated. So it passes the Spring Security Configurations successfully.
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
@@ -2,7 +2,9 @@ package com.myfinance.service;
 
 import com.myfinance.entity.Category;
 import com.myfinance.entity.Transaction;
+import com.myfinance.entity.TransactionType;
 import com.myfinance.entity.User;
+import com.myfinance.entity.UserMonthCategoryTotal;
 import com.myfinance.repository.CategoryRepository;
 import com.myfinance.repository.TransactionRepository;
 import com.myfinance.repository.UserRepository;
@@ -25,6 +27,7 @@ public class AnalyticsService {
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final UserMonthCategoryTotalService monthCategoryTotalService;
 
     public Map<String, Object> getFinancialAnalytics(String timeFrame, Integer year, Integer month, Integer quarter) {
         Map<String, Object> result = new HashMap<>();
@@ -109,37 +112,32 @@ public class AnalyticsService {
     private Map<String, Object> getAnalyticsForPeriod(LocalDate startDate, LocalDate endDate) {
         Map<String, Object> result = new HashMap<>();
 
-        // Get transactions for the period
-        List<Transaction> transactions = transactionRepository.findByTransactionDateBetween(startDate, endDate);
+        Map<Category, BigDecimal> expenseByCategory;
+        Map<Category, BigDecimal> incomeByCategory;
+
+        if (coversWholeMonths(startDate, endDate)) {
+            // Whole-month periods are served from the monthly rollup
+            List<UserMonthCategoryTotal> totals = monthCategoryTotalService.getAllTotalsForMonths(startDate, endDate);
+            expenseByCategory = sumRollupByCategory(totals, TransactionType.EXPENSE);
+            incomeByCategory = sumRollupByCategory(totals, TransactionType.INCOME);
+        } else {
+            // Get transactions for the period
+            List<Transaction> transactions = transactionRepository.findByTransactionDateBetween(startDate, endDate);
+            expenseByCategory = sumTransactionsByCategory(transactions, TransactionType.EXPENSE);
+            incomeByCategory = sumTransactionsByCategory(transactions, TransactionType.INCOME);
+        }
 
         // Calculate totals
-        BigDecimal totalRevenue = transactions.stream()
-            .filter(t -> "INCOME".equals(t.getType().name()))
-            .map(Transaction::getAmount)
+        BigDecimal totalRevenue = incomeByCategory.values().stream()
             .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        BigDecimal totalExpenses = transactions.stream()
-            .filter(t -> "EXPENSE".equals(t.getType().name()))
-            .map(Transaction::getAmount)
+        BigDecimal totalExpenses = expenseByCategory.values().stream()
             .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         result.put("totalRevenue", totalRevenue);
         result.put("totalExpenses", totalExpenses);
 
         // Top categories
-        Map<Category, BigDecimal> expenseByCategory = transactions.stream()
-            .filter(t -> "EXPENSE".equals(t.getType().name()))
-            .collect(Collectors.groupingBy(
-                Transaction::getCategory,
-                Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)
-            ));
-
-        Map<Category, BigDecimal> incomeByCategory = transactions.stream()
-            .filter(t -> "INCOME".equals(t.getType().name()))
-            .collect(Collectors.groupingBy(
-                Transaction::getCategory,
-                Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)
-            ));
 
         List<Map<String, Object>> topExpenseCategories = expenseByCategory.entrySet().stream()
             .sorted(Map.Entry.<Category, BigDecimal>comparingByValue().reversed())
@@ -171,6 +169,28 @@ public class AnalyticsService {
         return result;
     }
 
+    private boolean coversWholeMonths(LocalDate startDate, LocalDate endDate) {
+        return startDate.getDayOfMonth() == 1 && endDate.getDayOfMonth() == endDate.lengthOfMonth();
+    }
+
+    private Map<Category, BigDecimal> sumRollupByCategory(List<UserMonthCategoryTotal> totals, TransactionType type) {
+        return totals.stream()
+            .filter(t -> t.getType() == type)
+            .collect(Collectors.groupingBy(
+                UserMonthCategoryTotal::getCategory,
+                Collectors.reducing(BigDecimal.ZERO, UserMonthCategoryTotal::getTotalAmount, BigDecimal::add)
+            ));
+    }
+
+    private Map<Category, BigDecimal> sumTransactionsByCategory(List<Transaction> transactions, TransactionType type) {
+        return transactions.stream()
+            .filter(t -> t.getType() == type)
+            .collect(Collectors.groupingBy(
+                Transaction::getCategory,
+                Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)
+            ));
+    }
+
     private LocalDate calculateStartDate(String timeFrame, Integer year, Integer month, Integer quarter) {
         switch (timeFrame.toLowerCase()) {
             case "month":
@@ -8,6 +8,7 @@ import com.myfinance.exception.BadRequestException;
 import com.myfinance.exception.ResourceNotFoundException;
 import com.myfinance.repository.UserRepository;
 import com.myfinance.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -35,6 +36,7 @@ public class AuthService {
     private final EmailService emailService;
     private final UserPreferencesService preferencesService;
     private final OnboardingProgressService onboardingService;
+    private final UserStatusService userStatusService;
 
     @Transactional
     public UserResponse register(RegisterRequest request) {
@@ -130,8 +132,9 @@ public class AuthService {
             // Get user roles
             List<String> userRoles = roleService.getUserRoleNames(user.getId());
 
-            // Generate JWT token with roles
-            String token = jwtUtil.generateTokenWithRoles(user.getId(), user.getEmail(), userRoles);
+            // Generate JWT token with roles (dated after a logout in this same second, so it is not revoked with it)
+            String token = jwtUtil.generateTokenWithRoles(user.getId(), user.getEmail(), userRoles,
+                    user.getTokensValidAfter());
 
             log.info("User logged in successfully: {}", user.getEmail());
 
@@ -205,8 +208,12 @@ public class AuthService {
         return mapToUserResponse(updatedUser);
     }
 
+    /**
+     * Change the password and revoke every previously issued token
+     * @return a new token for the current session
+     */
     @Transactional
-    public void changePassword(Long userId, ChangePasswordRequest request) {
+    public String changePassword(Long userId, ChangePasswordRequest request) {
         log.info("Changing password for user ID: {}", userId);
 
         // Validate new passwords match
@@ -226,6 +233,11 @@ public class AuthService {
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
 
+        // Sessions signed in with the old password end; this one continues with a new token
+        LocalDateTime revokedUntil = userStatusService.revokeTokens(userId);
+        String token = jwtUtil.generateTokenWithRoles(userId, user.getEmail(), roleService.getUserRoleNames(userId),
+                revokedUntil);
+
         // Send password change notification email
         try {
             java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
@@ -238,6 +250,7 @@ public class AuthService {
         }
 
         log.info("Password changed successfully for user ID: {}", userId);
+        return token;
     }
 
     @Transactional
@@ -252,7 +265,7 @@ public class AuthService {
                 .orElseThrow(() -> new ResourceNotFoundException("Email không tồn tại trong hệ thống"));
 
         // Generate reset token
-        String resetToken = jwtUtil.generateToken(user.getId(), user.getEmail());
+        String resetToken = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getTokensValidAfter());
         log.info("Password reset token generated for user: {}", user.getEmail());
 
         // Send password reset email
@@ -280,13 +293,21 @@ public class AuthService {
                 throw new BadRequestException("Token không hợp lệ hoặc đã hết hạn");
             }
 
-            Long userId = jwtUtil.extractUserId(request.getToken());
+            Claims claims = jwtUtil.extractClaim(request.getToken(), java.util.function.Function.identity());
+            Long userId = claims.get("userId", Long.class);
+
+            // A reset token stops working once any reset or logout revoked it
+            if (!userStatusService.isTokenAccepted(userId, claims.getIssuedAt())) {
+                throw new BadRequestException("Token không hợp lệ hoặc đã hết hạn");
+            }
+
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new ResourceNotFoundException("Người dùng không tồn tại"));
 
             // Update password
             user.setPassword(passwordEncoder.encode(request.getNewPassword()));
             userRepository.save(user);
+            userStatusService.revokeTokens(userId);
 
             log.info("Password reset successfully for user ID: {}", userId);
 
@@ -0,0 +1,90 @@
+package com.myfinance.service;
+
+import com.myfinance.entity.BudgetAlertDigestItem;
+import com.myfinance.entity.User;
+import com.myfinance.repository.BudgetAlertDigestItemRepository;
+import com.myfinance.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects budget alerts for users who chose the daily digest and sends them as one email.
+ * Alerts are stored in the database, so nothing collected during the day is lost on restart.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BudgetAlertDigestService {
+
+    private final BudgetAlertDigestItemRepository digestItemRepository;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+
+    /**
+     * Hold back a budget alert for the user's next digest
+     */
+    @Transactional
+    public void collect(Long userId, Long budgetId, String categoryName, BigDecimal budgetAmount,
+                        BigDecimal actualAmount, Double usagePercent) {
+        digestItemRepository.save(BudgetAlertDigestItem.builder()
+                .userId(userId)
+                .budgetId(budgetId)
+                .categoryName(categoryName)
+                .budgetAmount(budgetAmount)
+                .actualAmount(actualAmount)
+                .usagePercent(usagePercent)
+                .build());
+    }
+
+    public List<Long> getUsersWithPendingAlerts() {
+        return digestItemRepository.findUserIdsWithPendingItems();
+    }
+
+    /**
+     * Send one digest email with the user's collected alerts and remove them.
+     * The email is written to the outbox in the same transaction as the delete, and any failure rolls
+     * both back, so each alert is sent exactly once even when several instances run the digest job.
+     */
+    @Transactional
+    public void sendDigest(Long userId) {
+        List<BudgetAlertDigestItem> items = digestItemRepository.findByUserIdOrderByIdAsc(userId);
+        if (items.isEmpty()) {
+            return;
+        }
+
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            log.warn("User not found for budget digest: {}", userId);
+            deleteAll(userId, items);
+            return;
+        }
+
+        // A budget may cross several levels in a day; only its latest state is reported
+        Map<Long, BudgetAlertDigestItem> latestByBudget = new LinkedHashMap<>();
+        items.forEach(item -> latestByBudget.put(item.getBudgetId(), item));
+
+        List<BudgetAlertDigestItem> alerts = new ArrayList<>(latestByBudget.values());
+        alerts.sort(Comparator.comparing(BudgetAlertDigestItem::getUsagePercent).reversed());
+
+        emailService.sendBudgetDigestEmail(user.getId(), user.getEmail(), user.getFullName(), alerts);
+        deleteAll(userId, items);
+        log.info("Budget digest with {} alerts queued for user: {}", alerts.size(), userId);
+    }
+
+    private void deleteAll(Long userId, List<BudgetAlertDigestItem> items) {
+        List<Long> ids = items.stream().map(BudgetAlertDigestItem::getId).toList();
+        if (digestItemRepository.deleteByIds(ids) != ids.size()) {
+            // Another instance sent some of these items; roll back so none are deleted unsent
+            throw new IllegalStateException("Budget digest for user " + userId + " was sent concurrently");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.myfinance.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Queues budget alert checks off the write path.
+ * Events for the same (user, category) are coalesced over a short window, so a burst of
+ * expenses costs one evaluation instead of one per transaction.
+ * Also triggers the daily budget alert digest for users who chose it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BudgetAlertDispatcher {
+
+    private final BudgetService budgetService;
+    private final BudgetAlertDigestService budgetAlertDigestService;
+
+    @Value("${app.budget-alert.debounce-ms:5000}")
+    private long debounceMs;
+
+    // "userId:categoryId" -> first pending event for that pair
+    private final Map<String, PendingAlert> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Request a budget alert check. When called inside a transaction the event is queued
+     * only after commit, so the evaluation sees the written data and nothing is queued on rollback.
+     */
+    public void enqueue(Long userId, Long categoryId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addPending(userId, categoryId);
+                }
+            });
+        } else {
+            addPending(userId, categoryId);
+        }
+    }
+
+    /**
+     * Evaluate every (user, category) whose coalescing window has elapsed
+     */
+    @Scheduled(fixedDelayString = "${app.budget-alert.drain-interval-ms:1000}")
+    public void drainDueAlerts() {
+        long cutoff = System.currentTimeMillis() - debounceMs;
+
+        for (Map.Entry<String, PendingAlert> entry : pending.entrySet()) {
+            PendingAlert alert = entry.getValue();
+            if (alert.enqueuedAt() > cutoff) {
+                continue;
+            }
+
+            // Remove first: events arriving during evaluation start a new window
+            if (pending.remove(entry.getKey(), alert)) {
+                try {
+                    budgetService.checkAndSendBudgetAlert(alert.userId(), alert.categoryId());
+                } catch (Exception e) {
+                    // The check rolled back, so the next write to this category re-evaluates it
+                    log.error("Failed to check/send budget alert for user: {}, category: {}",
+                            alert.userId(), alert.categoryId(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Send the collected alerts of digest users, one email per user
+     */
+    @Scheduled(cron = "${app.budget-alert.digest-cron:0 0 20 * * *}")
+    public void sendDailyDigests() {
+        List<Long> userIds = budgetAlertDigestService.getUsersWithPendingAlerts();
+        log.info("Sending budget digests to {} users", userIds.size());
+
+        for (Long userId : userIds) {
+            try {
+                budgetAlertDigestService.sendDigest(userId);
+            } catch (Exception e) {
+                // Items stay in place and are included in the next digest
+                log.error("Failed to send budget digest to user: {}", userId, e);
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void addPending(Long userId, Long categoryId) {
+        pending.putIfAbsent(userId + ":" + categoryId,
+                new PendingAlert(userId, categoryId, System.currentTimeMillis()));
+    }
+
+    private record PendingAlert(Long userId, Long categoryId, long enqueuedAt) {
+    }
+}
@@ -8,10 +8,11 @@ import com.myfinance.dto.response.BudgetWarningResponse;
 import com.myfinance.dto.response.BudgetPerformanceResponse;
 import com.myfinance.dto.response.BudgetDashboardResponse;
 import com.myfinance.entity.Budget;
+import com.myfinance.entity.BudgetAlertLevel;
 import com.myfinance.entity.Category;
 import com.myfinance.entity.TransactionType;
 import com.myfinance.entity.BudgetStatus;
-import com.myfinance.entity.Transaction;
+import com.myfinance.entity.UserBudgetSettings;
 import com.myfinance.exception.BadRequestException;
 import com.myfinance.exception.ResourceNotFoundException;
 import com.myfinance.repository.BudgetRepository;
@@ -20,6 +21,8 @@ import com.myfinance.repository.TransactionRepository;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +31,7 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -41,7 +45,13 @@ public class BudgetService {
     private final TransactionRepository transactionRepository;
     private final UserBudgetSettingsService userBudgetSettingsService;
     private final EmailService emailService;
+    private final BudgetAlertDigestService budgetAlertDigestService;
+    private final UserPreferencesService userPreferencesService;
     private final com.myfinance.repository.UserRepository userRepository;
+    private final UserMonthCategoryTotalService monthCategoryTotalService;
+    private final ReportCacheService reportCacheService;
+    // Looked up lazily: the dispatcher itself depends on this service
+    private final ObjectProvider<BudgetAlertDispatcher> budgetAlertDispatcher;
 
     @PostConstruct
     public void init() {
@@ -124,12 +134,14 @@ public class BudgetService {
         budget.setBudgetMonth(request.getBudgetMonth());
         budget.setDescription(request.getDescription());
         budget.setIsActive(true);
+        budget.setSpentAmount(loadSpentAmount(budget));
 
         Budget savedBudget = budgetRepository.save(budget);
+        reportCacheService.evictForBudget(userId, savedBudget.getBudgetYear(), savedBudget.getBudgetMonth());
         log.info("Budget created successfully with ID: {}", savedBudget.getId());
 
-        // NEW: Check if newly created budget is already exceeded by existing transactions
-        checkAndSendBudgetAlert(userId, savedBudget.getCategory().getId());
+        // Check after commit whether the new budget is already exceeded by existing transactions
+        budgetAlertDispatcher.getObject().enqueue(userId, savedBudget.getCategory().getId());
 
         return mapToBudgetResponse(savedBudget);
     }
@@ -159,17 +171,26 @@ public class BudgetService {
                     request.getBudgetMonth() + "/" + request.getBudgetYear() + " đã tồn tại");
         }
 
+        // Reports of the old period lose this budget's comparison data
+        reportCacheService.evictForBudget(userId, budget.getBudgetYear(), budget.getBudgetMonth());
+
         budget.setCategory(category);
         budget.setBudgetAmount(request.getBudgetAmount());
         budget.setBudgetYear(request.getBudgetYear());
         budget.setBudgetMonth(request.getBudgetMonth());
         budget.setDescription(request.getDescription());
+        budget.setLastAlertLevel(BudgetAlertLevel.NONE); // Re-evaluate alerts against the new budget
 
-        Budget updatedBudget = budgetRepository.save(budget);
+        Budget updatedBudget = budgetRepository.saveAndFlush(budget);
+        if (categoryOrPeriodChanged) {
+            // The counter now covers other expenses; rebuild it atomically instead of writing a computed value
+            budgetRepository.reconcileSpentAmount(budgetId);
+        }
+        reportCacheService.evictForBudget(userId, updatedBudget.getBudgetYear(), updatedBudget.getBudgetMonth());
         log.info("Budget updated successfully with ID: {}", budgetId);
 
-        // NEW: Check if updated budget thresholds are now exceeded by existing transactions
-        checkAndSendBudgetAlert(userId, updatedBudget.getCategory().getId());
+        // Check after commit whether the updated thresholds are now exceeded by existing transactions
+        budgetAlertDispatcher.getObject().enqueue(userId, updatedBudget.getCategory().getId());
 
         return mapToBudgetResponse(updatedBudget);
     }
@@ -182,7 +203,8 @@ public class BudgetService {
         // Soft delete
         budget.setIsActive(false);
         budgetRepository.save(budget);
-        
+        reportCacheService.evictForBudget(userId, budget.getBudgetYear(), budget.getBudgetMonth());
+
         log.info("Budget soft deleted successfully with ID: {}", budgetId);
     }
 
@@ -190,30 +212,26 @@ public class BudgetService {
 
     public List<BudgetUsageResponse> getBudgetUsageAnalytics(Long userId) {
         List<Budget> budgets = budgetRepository.findByUserIdAndIsActiveTrueOrderByBudgetYearDescBudgetMonthDesc(userId);
-        return budgets.stream()
-                .map(budget -> calculateBudgetUsage(budget, userId))
-                .collect(Collectors.toList());
+        return calculateBudgetUsages(budgets, new BudgetComputation(userId));
     }
 
     public List<BudgetUsageResponse> getCurrentMonthBudgetUsage(Long userId) {
-        LocalDateTime now = LocalDateTime.now();
-        List<Budget> budgets = budgetRepository.findByUserIdAndBudgetYearAndBudgetMonthAndIsActiveTrue(
-                userId, now.getYear(), now.getMonthValue());
-
-        return budgets.stream()
-                .map(budget -> calculateBudgetUsage(budget, userId))
-                .collect(Collectors.toList());
+        return new BudgetComputation(userId).currentMonthUsage();
     }
 
     public BudgetWarningResponse getBudgetWarnings(Long userId) {
-        List<BudgetUsageResponse> usageList = getCurrentMonthBudgetUsage(userId);
+        return getBudgetWarnings(new BudgetComputation(userId));
+    }
+
+    private BudgetWarningResponse getBudgetWarnings(BudgetComputation computation) {
+        List<BudgetUsageResponse> usageList = computation.currentMonthUsage();
 
         // Get user's configurable threshold
-        double warningThreshold = userBudgetSettingsService.getWarningThreshold(userId);
+        double warningThreshold = computation.settings.getWarningThreshold();
 
         List<BudgetWarningResponse.BudgetAlert> alerts = usageList.stream()
                 .filter(usage -> usage.getUsagePercentage() >= warningThreshold)
-                .map(usage -> createBudgetAlert(usage, userId))
+                .map(usage -> createBudgetAlert(usage, computation.settings))
                 .collect(Collectors.toList());
 
         long warningCount = alerts.stream()
@@ -233,7 +251,11 @@ public class BudgetService {
     }
 
     public BudgetPerformanceResponse getBudgetPerformance(Long userId) {
-        List<BudgetUsageResponse> usageList = getCurrentMonthBudgetUsage(userId);
+        return getBudgetPerformance(new BudgetComputation(userId));
+    }
+
+    private BudgetPerformanceResponse getBudgetPerformance(BudgetComputation computation) {
+        List<BudgetUsageResponse> usageList = computation.currentMonthUsage();
 
         BigDecimal totalBudget = usageList.stream()
                 .map(BudgetUsageResponse::getBudgetAmount)
@@ -273,12 +295,15 @@ public class BudgetService {
     }
 
     public BudgetDashboardResponse getBudgetDashboard(Long userId) {
-        BudgetPerformanceResponse performance = getBudgetPerformance(userId);
-        List<BudgetUsageResponse> recentBudgets = getCurrentMonthBudgetUsage(userId).stream()
+        // One computation shared by all sections: thresholds and usage are loaded once
+        BudgetComputation computation = new BudgetComputation(userId);
+
+        BudgetPerformanceResponse performance = getBudgetPerformance(computation);
+        List<BudgetUsageResponse> recentBudgets = computation.currentMonthUsage().stream()
                 .limit(5)
                 .collect(Collectors.toList());
 
-        BudgetWarningResponse warnings = getBudgetWarnings(userId);
+        BudgetWarningResponse warnings = getBudgetWarnings(computation);
         List<BudgetWarningResponse.BudgetAlert> urgentAlerts = warnings.getAlerts().stream()
                 .filter(alert -> "OVER_BUDGET".equals(alert.getAlertType()))
                 .limit(3)
@@ -304,8 +329,20 @@ public class BudgetService {
 
     // ===== PRIVATE HELPER METHODS =====
 
-    private BudgetUsageResponse calculateBudgetUsage(Budget budget, Long userId) {
-        BigDecimal actualSpent = calculateActualSpending(budget, userId);
+    /**
+     * Usage for a list of budgets, computed in memory from their maintained spent counters
+     */
+    private List<BudgetUsageResponse> calculateBudgetUsages(List<Budget> budgets, BudgetComputation computation) {
+        return budgets.stream()
+                .map(budget -> calculateBudgetUsage(budget, computation.settings))
+                .collect(Collectors.toList());
+    }
+
+    private BudgetUsageResponse calculateBudgetUsage(Budget budget, UserBudgetSettings settings) {
+        return calculateBudgetUsage(budget, settings, budget.getEffectiveSpentAmount());
+    }
+
+    private BudgetUsageResponse calculateBudgetUsage(Budget budget, UserBudgetSettings settings, BigDecimal actualSpent) {
         BigDecimal remaining = budget.getBudgetAmount().subtract(actualSpent);
 
         double usagePercentage = budget.getBudgetAmount().compareTo(BigDecimal.ZERO) > 0
@@ -314,7 +351,7 @@ public class BudgetService {
                     .doubleValue()
                 : 0.0;
 
-        BudgetStatus status = getBudgetStatus(usagePercentage, userId);
+        BudgetStatus status = getBudgetStatus(usagePercentage, settings);
 
         String statusMessage = generateStatusMessage(usagePercentage, remaining);
 
@@ -338,76 +375,111 @@ public class BudgetService {
 
     /**
      * Check budget threshold and send email alert if needed
-     * Called after transaction creation/update
+     * Called by BudgetAlertDispatcher after transaction and budget writes commit.
+     * An email is only sent when usage crosses into a higher level than the one last alerted.
+     * Failures roll back the level change, so the next write re-evaluates the budget.
      */
+    @Transactional
     public void checkAndSendBudgetAlert(Long userId, Long categoryId) {
-        try {
-            // Get user info
-            com.myfinance.entity.User user = userRepository.findById(userId).orElse(null);
-            if (user == null) {
-                log.warn("User not found for budget alert: {}", userId);
-                return;
-            }
+        // Get current month's budget for this category
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Budget> budgetOpt = budgetRepository.findByUserIdAndCategoryIdAndBudgetYearAndBudgetMonthAndIsActiveTrue(
+                userId, categoryId, now.getYear(), now.getMonthValue());
+
+        if (budgetOpt.isEmpty()) {
+            log.debug("No active budget found for user {} category {} period {}/{}",
+                      userId, categoryId, now.getYear(), now.getMonthValue());
+            return; // No budget set for this category/period
+        }
 
-            // Get user's threshold settings
-            double warningThreshold = userBudgetSettingsService.getWarningThreshold(userId);
-            double criticalThreshold = userBudgetSettingsService.getCriticalThreshold(userId);
+        // Get user's threshold settings
+        UserBudgetSettings settings = userBudgetSettingsService.getThresholds(userId);
 
-            // Get current month's budget for this category
-            LocalDateTime now = LocalDateTime.now();
-            Optional<Budget> budgetOpt = budgetRepository.findByUserIdAndCategoryIdAndBudgetYearAndBudgetMonthAndIsActiveTrue(
-                    userId, categoryId, now.getYear(), now.getMonthValue());
+        Budget budget = budgetOpt.get();
+        BudgetUsageResponse usage = calculateBudgetUsage(budget, settings);
 
-            if (budgetOpt.isEmpty()) {
-                log.debug("No active budget found for user {} category {} period {}/{}",
-                          userId, categoryId, now.getYear(), now.getMonthValue());
-                return; // No budget set for this category/period
-            }
+        BudgetAlertLevel level = BudgetAlertLevel.fromUsage(
+                usage.getUsagePercentage(), settings.getWarningThreshold(), settings.getCriticalThreshold());
+        BudgetAlertLevel lastLevel = budget.getEffectiveAlertLevel();
 
-            Budget budget = budgetOpt.get();
-            BudgetUsageResponse usage = calculateBudgetUsage(budget, userId);
-
-            // Check if usage percentage exceeds threshold
-            if (usage.getUsagePercentage() >= warningThreshold) {
-                // Send budget alert email
-                emailService.sendBudgetAlertEmail(
-                        user.getId(),
-                        user.getEmail(),
-                        user.getFullName(),
-                        budget.getCategory().getName(),
-                        budget.getBudgetAmount(),
-                        usage.getActualSpent(),
-                        usage.getUsagePercentage()
-                );
-
-                log.info("Budget alert email sent to user: {} for category: {} ({}%)",
-                        user.getEmail(), budget.getCategory().getName(), usage.getUsagePercentage());
-            }
-        } catch (Exception e) {
-            log.error("Failed to check/send budget alert for user: {}, category: {}", userId, categoryId, e);
-            // Don't fail the transaction if email fails
+        if (level == lastLevel) {
+            return; // Nothing crossed since the last evaluation
+        }
+
+        // Track the current level; dropping below re-arms alerts for that level
+        budgetRepository.updateLastAlertLevel(budget.getId(), level);
+
+        if (!level.isAbove(lastLevel)) {
+            log.debug("Budget {} dropped from {} to {}", budget.getId(), lastLevel, level);
+            return;
+        }
+
+        // Get user info
+        com.myfinance.entity.User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            log.warn("User not found for budget alert: {}", userId);
+            return;
         }
+
+        // Digest users get one email a day instead of one per alert
+        if (Boolean.TRUE.equals(userPreferencesService.getUserPreferences(userId).getBudgetAlertDigest())) {
+            budgetAlertDigestService.collect(userId, budget.getId(), budget.getCategory().getName(),
+                    budget.getBudgetAmount(), usage.getActualSpent(), usage.getUsagePercentage());
+            log.info("Budget alert for user: {} category: {} added to daily digest ({}%, level {})",
+                    userId, budget.getCategory().getName(), usage.getUsagePercentage(), level);
+            return;
+        }
+
+        // Send budget alert email
+        emailService.sendBudgetAlertEmail(
+                user.getId(),
+                user.getEmail(),
+                user.getFullName(),
+                budget.getCategory().getName(),
+                budget.getBudgetAmount(),
+                usage.getActualSpent(),
+                usage.getUsagePercentage()
+        );
+
+        log.info("Budget alert email sent to user: {} for category: {} ({}%, level {})",
+                user.getEmail(), budget.getCategory().getName(), usage.getUsagePercentage(), level);
     }
 
-    private BigDecimal calculateActualSpending(Budget budget, Long userId) {
-        // Get first and last day of the budget month
-        LocalDate startDate = LocalDate.of(budget.getBudgetYear(), budget.getBudgetMonth(), 1);
-        LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
+    /**
+     * Adjust the spent counter of the budget covering an expense's category and month.
+     * Called by TransactionService in the write transaction with +amount / -amount.
+     */
+    @Transactional
+    public void recordExpenseChange(Long userId, Long categoryId, LocalDate transactionDate, BigDecimal delta) {
+        budgetRepository.adjustSpentAmount(userId, categoryId,
+                transactionDate.getYear(), transactionDate.getMonthValue(), delta);
+    }
 
-        // Find all expense transactions for this category in the budget period
-        List<Transaction> transactions = transactionRepository.findTransactionsWithFilters(
-                userId,
-                TransactionType.EXPENSE,
+    /**
+     * Rebuild all spent counters from raw transactions to repair any drift
+     * (e.g. a budget created concurrently with an expense in its period)
+     */
+    @Scheduled(cron = "0 30 3 * * *") // Every day at 03:30
+    @Transactional
+    public int reconcileSpentAmounts() {
+        int updated = budgetRepository.reconcileSpentAmounts();
+        log.info("Reconciled spent amounts for {} budgets", updated);
+        return updated;
+    }
+
+    public boolean needsSpentAmountBackfill() {
+        return budgetRepository.existsBySpentAmountIsNull();
+    }
+
+    private BigDecimal loadSpentAmount(Budget budget) {
+        // Initial counter value comes from the month's expense total in the rollup
+        return monthCategoryTotalService.getCategoryMonthTotal(
+                budget.getUserId(),
                 budget.getCategory().getId(),
-                startDate,
-                endDate,
-                null
+                TransactionType.EXPENSE,
+                budget.getBudgetYear(),
+                budget.getBudgetMonth()
         );
-
-        // Sum transaction amounts
-        return transactions.stream()
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
     private String generateStatusMessage(double usagePercentage, BigDecimal remainingAmount) {
@@ -423,9 +495,9 @@ public class BudgetService {
         }
     }
 
-    private BudgetWarningResponse.BudgetAlert createBudgetAlert(BudgetUsageResponse usage, Long userId) {
-        double warningThreshold = userBudgetSettingsService.getWarningThreshold(userId);
-        double criticalThreshold = userBudgetSettingsService.getCriticalThreshold(userId);
+    private BudgetWarningResponse.BudgetAlert createBudgetAlert(BudgetUsageResponse usage, UserBudgetSettings settings) {
+        double warningThreshold = settings.getWarningThreshold();
+        double criticalThreshold = settings.getCriticalThreshold();
 
         String alertType;
         String alertLevel;
@@ -504,9 +576,9 @@ public class BudgetService {
         return String.format("%,.0f VND", amount);
     }
 
-    private BudgetStatus getBudgetStatus(double usagePercentage, Long userId) {
-        double warningThreshold = userBudgetSettingsService.getWarningThreshold(userId);
-        double criticalThreshold = userBudgetSettingsService.getCriticalThreshold(userId);
+    private BudgetStatus getBudgetStatus(double usagePercentage, UserBudgetSettings settings) {
+        double warningThreshold = settings.getWarningThreshold();
+        double criticalThreshold = settings.getCriticalThreshold();
 
         if (usagePercentage >= 100.0) {
             return BudgetStatus.RED;
@@ -548,4 +620,29 @@ public class BudgetService {
     public Long countByUserId(Long userId) {
         return budgetRepository.countByUserId(userId);
     }
+
+    /**
+     * Per-call computation context. The user's thresholds are read once and current-month
+     * usage is computed at most once, then shared by every section built from it.
+     */
+    private class BudgetComputation {
+        private final Long userId;
+        private final UserBudgetSettings settings;
+        private List<BudgetUsageResponse> currentMonthUsage;
+
+        private BudgetComputation(Long userId) {
+            this.userId = userId;
+            this.settings = userBudgetSettingsService.getThresholds(userId);
+        }
+
+        private List<BudgetUsageResponse> currentMonthUsage() {
+            if (currentMonthUsage == null) {
+                LocalDateTime now = LocalDateTime.now();
+                List<Budget> budgets = budgetRepository.findByUserIdAndBudgetYearAndBudgetMonthAndIsActiveTrue(
+                        userId, now.getYear(), now.getMonthValue());
+                currentMonthUsage = calculateBudgetUsages(budgets, this);
+            }
+            return currentMonthUsage;
+        }
+    }
 }
\ No newline at end of file
@@ -24,6 +24,7 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final TransactionRepository transactionRepository;
+    private final ReportCacheService reportCacheService;
 
     public List<CategoryResponse> getUserCategories(Long userId) {
         List<Category> categories = categoryRepository.findByUserIdOrderByName(userId);
@@ -96,6 +97,7 @@ public class CategoryService {
         category.setIcon(request.getIcon() != null ? request.getIcon() : category.getIcon());
 
         Category updatedCategory = categoryRepository.save(category);
+        reportCacheService.evictUser(userId); // Cached reports carry the category name, color and icon
         log.info("Category updated successfully with ID: {}", categoryId);
 
         return mapToCategoryResponse(updatedCategory);
@@ -0,0 +1,278 @@
+package com.myfinance.service;
+
+import com.myfinance.entity.EmailOutbox;
+import com.myfinance.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional email outbox.
+ * Emails are stored in the caller's transaction and sent after commit in batches that share one
+ * SMTP connection. Failed messages are retried with exponential backoff; delivery is at-least-once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    @Qualifier("emailSenderExecutor")
+    private final TaskExecutor emailSenderExecutor;
+
+    @Value("${app.email.from}")
+    private String fromEmail;
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.claim-ttl-ms:300000}")
+    private long claimTtlMs;
+
+    @Value("${app.email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.retry-base-delay-ms:30000}")
+    private long retryBaseDelayMs;
+
+    @Value("${app.email.outbox.retry-max-delay-ms:3600000}")
+    private long retryMaxDelayMs;
+
+    @Value("${app.email.outbox.retention-days:7}")
+    private int retentionDays;
+
+    // Only one drain runs per instance; a wake-up during a drain is remembered and triggers another pass
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean wakeUp = new AtomicBoolean();
+
+    // Sender metrics
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong abandonedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong totalBatchMillis = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile LocalDateTime lastBatchAt;
+
+    /**
+     * Store an email for delivery. Joins the caller's transaction when there is one,
+     * so the email is only sent if the business change commits.
+     */
+    public void enqueue(String recipient, String subject, String htmlBody, byte[] attachment, String attachmentName) {
+        EmailOutbox email = EmailOutbox.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .htmlBody(htmlBody)
+                .attachment(attachment != null && attachment.length > 0 ? attachment : null)
+                .attachmentName(attachmentName)
+                .build();
+        emailOutboxRepository.save(email);
+
+        // Send right after commit instead of waiting for the next poll
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    triggerDrain();
+                }
+            });
+        } else {
+            triggerDrain();
+        }
+    }
+
+    /**
+     * Fallback poll for retries, claims expired on other instances and missed wake-ups
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:10000}")
+    public void pollOutbox() {
+        triggerDrain();
+    }
+
+    /**
+     * Remove delivered emails past the retention window
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeSentEmails() {
+        int removed = emailOutboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (removed > 0) {
+            log.info("Purged {} sent emails from the outbox", removed);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long batches = batchCount.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", emailOutboxRepository.countByStatus(EmailOutbox.Status.PENDING));
+        stats.put("failed", emailOutboxRepository.countByStatus(EmailOutbox.Status.FAILED));
+        stats.put("sent", sentCount.get());
+        stats.put("failedAttempts", failedAttempts.get());
+        stats.put("abandoned", abandonedCount.get());
+        stats.put("batches", batches);
+        stats.put("averageBatchMillis", batches == 0 ? 0 : totalBatchMillis.get() / batches);
+        stats.put("messagesPerSecond", totalBatchMillis.get() == 0 ? 0.0
+                : Math.round(sentCount.get() * 100000.0 / totalBatchMillis.get()) / 100.0);
+        stats.put("lastBatchSize", lastBatchSize);
+        stats.put("lastBatchAt", lastBatchAt);
+        return stats;
+    }
+
+    private void triggerDrain() {
+        wakeUp.set(true);
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            emailSenderExecutor.execute(this::drain);
+        } catch (TaskRejectedException e) {
+            draining.set(false);
+            log.warn("Email sender is busy; the outbox will be drained on the next poll");
+        }
+    }
+
+    private void drain() {
+        try {
+            while (wakeUp.getAndSet(false)) {
+                // Keep sending full batches until the outbox is empty
+                while (sendBatch() == batchSize) {
+                    wakeUp.set(false);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error draining email outbox", e);
+        } finally {
+            draining.set(false);
+        }
+
+        // A wake-up that arrived after the last check would otherwise wait for the next poll
+        if (wakeUp.get()) {
+            triggerDrain();
+        }
+    }
+
+    /**
+     * Claim one batch and send it over a single SMTP connection
+     * @return number of claimed emails
+     */
+    private int sendBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        String claimToken = UUID.randomUUID().toString();
+        int claimed = emailOutboxRepository.claimBatch(
+                now, now.plus(Duration.ofMillis(claimTtlMs)), claimToken, batchSize);
+        if (claimed == 0) {
+            return 0;
+        }
+
+        List<EmailOutbox> batch = emailOutboxRepository.findByClaimTokenOrderById(claimToken);
+        long startedAt = System.currentTimeMillis();
+
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException e) {
+                recordFailure(email, e);
+            }
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+        } catch (MailException e) {
+            // e.g. authentication failed: nothing was sent
+            Map<Object, Exception> all = new IdentityHashMap<>();
+            messages.keySet().forEach(message -> all.put(message, e));
+            failures = all;
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                sentIds.add(entry.getValue().getId());
+            } else {
+                recordFailure(entry.getValue(), failure);
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            emailOutboxRepository.markSent(sentIds, LocalDateTime.now());
+        }
+
+        long elapsed = System.currentTimeMillis() - startedAt;
+        sentCount.addAndGet(sentIds.size());
+        batchCount.incrementAndGet();
+        totalBatchMillis.addAndGet(elapsed);
+        lastBatchSize = batch.size();
+        lastBatchAt = now;
+        log.info("Sent {} of {} outbox emails in {} ms", sentIds.size(), batch.size(), elapsed);
+
+        return claimed;
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getHtmlBody(), true);
+
+        if (email.getAttachment() != null) {
+            byte[] attachment = email.getAttachment();
+            helper.addAttachment(email.getAttachmentName(), () -> new ByteArrayInputStream(attachment));
+        }
+        return message;
+    }
+
+    private void recordFailure(EmailOutbox email, Exception e) {
+        int attempts = email.getAttempts() + 1;
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+
+        failedAttempts.incrementAndGet();
+        if (attempts >= maxAttempts) {
+            abandonedCount.incrementAndGet();
+            emailOutboxRepository.markFailedAttempt(email.getId(), EmailOutbox.Status.FAILED.name(),
+                    attempts, error, email.getNextAttemptAt());
+            log.error("Giving up on email {} to {} after {} attempts: {}", email.getId(), email.getRecipient(), attempts, error);
+            return;
+        }
+
+        long delay = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(attempts - 1, 20));
+        emailOutboxRepository.markFailedAttempt(email.getId(), EmailOutbox.Status.PENDING.name(),
+                attempts, error, LocalDateTime.now().plus(Duration.ofMillis(delay)));
+        log.warn("Failed to send email {} to {} (attempt {}): {}", email.getId(), email.getRecipient(), attempts, error);
+    }
+}
@@ -1,13 +1,9 @@
 package com.myfinance.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.myfinance.entity.BudgetAlertDigestItem;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
@@ -16,20 +12,24 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
+/**
+ * Renders notification emails and stores them in the outbox; delivery is handled by EmailOutboxService
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailOutboxService emailOutboxService;
     private final TemplateEngine templateEngine;
     private final UserPreferencesService userPreferencesService;
 
-    @Value("${app.email.from}")
-    private String fromEmail;
-
     @Value("${app.email.enabled:false}")
     private boolean emailEnabled;
 
@@ -79,7 +79,6 @@ public class EmailService {
     /**
      * Send welcome email to new user
      */
-    @Async
     public void sendWelcomeEmail(Long userId, String toEmail, String fullName) {
         if (!shouldSendEmail(userId, null)) {
             log.info("Welcome email not sent to {} - notifications disabled", toEmail);
@@ -93,8 +92,8 @@ public class EmailService {
 
             String htmlContent = templateEngine.process("email/welcome", context);
 
-            sendHtmlEmail(toEmail, "Chào mừng đến với MyFinance!", htmlContent);
-            log.info("Welcome email sent to: {}", toEmail);
+            emailOutboxService.enqueue(toEmail, "Chào mừng đến với MyFinance!", htmlContent, null, null);
+            log.info("Welcome email queued for: {}", toEmail);
         } catch (Exception e) {
             log.error("Failed to send welcome email to: {}", toEmail, e);
         }
@@ -103,7 +102,6 @@ public class EmailService {
     /**
      * Send password reset email
      */
-    @Async
     public void sendPasswordResetEmail(Long userId, String toEmail, String fullName, String resetToken) {
         if (!shouldSendEmail(userId, null)) {
             log.info("Password reset email not sent to {} - notifications disabled", toEmail);
@@ -119,8 +117,8 @@ public class EmailService {
 
             String htmlContent = templateEngine.process("email/password-reset", context);
 
-            sendHtmlEmail(toEmail, "Đặt lại mật khẩu MyFinance", htmlContent);
-            log.info("Password reset email sent to: {}", toEmail);
+            emailOutboxService.enqueue(toEmail, "Đặt lại mật khẩu MyFinance", htmlContent, null, null);
+            log.info("Password reset email queued for: {}", toEmail);
         } catch (Exception e) {
             log.error("Failed to send password reset email to: {}", toEmail, e);
         }
@@ -129,7 +127,6 @@ public class EmailService {
     /**
      * Send budget alert email when threshold exceeded
      */
-    @Async
     public void sendBudgetAlertEmail(Long userId, String toEmail, String fullName, String categoryName,
                                       BigDecimal budgetAmount, BigDecimal actualAmount,
                                       Double usagePercent) {
@@ -150,17 +147,52 @@ public class EmailService {
             String htmlContent = templateEngine.process("email/budget-alert", context);
 
             String subject = String.format("Cảnh báo ngân sách: %s đã vượt %.0f%%", categoryName, usagePercent);
-            sendHtmlEmail(toEmail, subject, htmlContent);
-            log.info("Budget alert email sent to: {} for category: {}", toEmail, categoryName);
+            emailOutboxService.enqueue(toEmail, subject, htmlContent, null, null);
+            log.info("Budget alert email queued for: {} for category: {}", toEmail, categoryName);
         } catch (Exception e) {
             log.error("Failed to send budget alert email to: {}", toEmail, e);
         }
     }
 
+    /**
+     * Send the daily digest of budget alerts collected for a user.
+     * Unlike the other emails, render and enqueue failures are thrown, so the caller's transaction
+     * rolls back and the collected alerts are kept for the next digest.
+     */
+    public void sendBudgetDigestEmail(Long userId, String toEmail, String fullName,
+                                      List<BudgetAlertDigestItem> alerts) {
+        if (!shouldSendEmail(userId, "budgetAlerts")) {
+            log.info("Budget digest email not sent to {} - notifications or budgetAlerts disabled", toEmail);
+            return;
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (BudgetAlertDigestItem alert : alerts) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("categoryName", alert.getCategoryName());
+            row.put("budgetAmount", formatCurrency(alert.getBudgetAmount()));
+            row.put("actualAmount", formatCurrency(alert.getActualAmount()));
+            row.put("usagePercent", String.format("%.1f", alert.getUsagePercent()));
+            row.put("alertLevel", getAlertLevel(alert.getUsagePercent()));
+            rows.add(row);
+        }
+
+        Context context = new Context();
+        context.setVariable("fullName", fullName);
+        context.setVariable("alerts", rows);
+        context.setVariable("alertCount", rows.size());
+        context.setVariable("currentDate", LocalDateTime.now().format(DATE_FORMATTER));
+
+        String htmlContent = templateEngine.process("email/budget-digest", context);
+
+        String subject = String.format("Tổng hợp cảnh báo ngân sách: %d danh mục cần chú ý", rows.size());
+        emailOutboxService.enqueue(toEmail, subject, htmlContent, null, null);
+        log.info("Budget digest email queued for: {} with {} alerts", toEmail, rows.size());
+    }
+
     /**
      * Send scheduled report email
      */
-    @Async
     public void sendScheduledReportEmail(Long userId, String toEmail, String fullName,
                                           String reportType, byte[] attachment,
                                           String fileName) {
@@ -178,8 +210,8 @@ public class EmailService {
 
             String htmlContent = templateEngine.process("email/scheduled-report", context);
 
-            sendHtmlEmailWithAttachment(toEmail, "Báo cáo tài chính định kỳ", htmlContent, attachment, fileName);
-            log.info("Scheduled report email sent to: {} with attachment: {}", toEmail, fileName);
+            emailOutboxService.enqueue(toEmail, "Báo cáo tài chính định kỳ", htmlContent, attachment, fileName);
+            log.info("Scheduled report email queued for: {} with attachment: {}", toEmail, fileName);
         } catch (Exception e) {
             log.error("Failed to send scheduled report email to: {}", toEmail, e);
         }
@@ -188,7 +220,6 @@ public class EmailService {
     /**
      * Send password change notification email
      */
-    @Async
     public void sendPasswordChangeEmail(Long userId, String toEmail, String fullName, String changeTime) {
         if (!shouldSendEmail(userId, null)) {
             log.info("Password change email not sent to {} - notifications disabled", toEmail);
@@ -203,48 +234,13 @@ public class EmailService {
 
             String htmlContent = templateEngine.process("email/password-change", context);
 
-            sendHtmlEmail(toEmail, "Mật khẩu đã được thay đổi", htmlContent);
-            log.info("Password change notification email sent to: {}", toEmail);
+            emailOutboxService.enqueue(toEmail, "Mật khẩu đã được thay đổi", htmlContent, null, null);
+            log.info("Password change notification email queued for: {}", toEmail);
         } catch (Exception e) {
             log.error("Failed to send password change email to: {}", toEmail, e);
         }
     }
 
-    /**
-     * Send HTML email
-     */
-    private void sendHtmlEmail(String to, String subject, String htmlContent) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-        helper.setFrom(fromEmail);
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true);
-
-        mailSender.send(message);
-    }
-
-    /**
-     * Send HTML email with attachment
-     */
-    private void sendHtmlEmailWithAttachment(String to, String subject, String htmlContent,
-                                              byte[] attachment, String fileName) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-        helper.setFrom(fromEmail);
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true);
-
-        if (attachment != null && attachment.length > 0) {
-            helper.addAttachment(fileName, () -> new java.io.ByteArrayInputStream(attachment));
-        }
-
-        mailSender.send(message);
-    }
-
     // Helper methods
     private String formatCurrency(BigDecimal amount) {
         return String.format("%,.0f ₫", amount);
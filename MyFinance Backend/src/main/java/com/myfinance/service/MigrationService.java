@@ -13,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class MigrationService {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ReportCacheService reportCacheService;
 
     @Transactional
     public void migrateSystemConfigEnumValues() {
@@ -108,4 +109,46 @@ public class MigrationService {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Rebuild the user_month_category_totals rollup from raw transactions.
+     * Used to backfill the rollup for existing data and to repair drift.
+     */
+    @Transactional
+    public int rebuildMonthCategoryTotals() {
+        log.info("Rebuilding user_month_category_totals from transactions...");
+
+        jdbcTemplate.update("DELETE FROM user_month_category_totals");
+
+        String rebuildSql = """
+            INSERT INTO user_month_category_totals
+                (user_id, period_year, period_month, category_id, type,
+                 total_amount, transaction_count, min_amount, max_amount, updated_at)
+            SELECT user_id, YEAR(transaction_date), MONTH(transaction_date), category_id, type,
+                   SUM(amount), COUNT(*), MIN(amount), MAX(amount), NOW()
+            FROM transactions
+            GROUP BY user_id, YEAR(transaction_date), MONTH(transaction_date), category_id, type
+            """;
+
+        int rows = jdbcTemplate.update(rebuildSql);
+        log.info("Rebuilt {} rollup rows", rows);
+        // Cleared after commit, so reports rebuilt in the meantime from the old rollup are dropped too
+        reportCacheService.clear();
+        return rows;
+    }
+
+    public boolean needsMonthCategoryTotalsBackfill() {
+        try {
+            String sql = """
+                SELECT (SELECT COUNT(*) FROM user_month_category_totals) = 0
+                   AND EXISTS (SELECT 1 FROM transactions)
+                """;
+
+            Boolean needed = jdbcTemplate.queryForObject(sql, Boolean.class);
+            return Boolean.TRUE.equals(needed);
+        } catch (Exception e) {
+            log.warn("Error checking if rollup backfill is needed", e);
+            return false;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.myfinance.service;
 
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
@@ -18,12 +21,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  * Service for generating PDF reports
- * Generates professional PDF files from report data with Vietnamese localization
+ * Generates professional PDF files from report data with Vietnamese localization.
+ * Documents are written straight to an OutputStream; tables use iText's large-table mode
+ * so finished rows are flushed to the stream instead of held until the document closes.
  */
 @Service
 @Slf4j
@@ -33,154 +43,96 @@ public class PDFReportGenerator {
     private static final DeviceRgb SUCCESS_COLOR = new DeviceRgb(34, 197, 94); // Green-500
     private static final DeviceRgb DANGER_COLOR = new DeviceRgb(239, 68, 68); // Red-500
 
+    // Rows buffered per large table before they are laid out and flushed
+    private static final int TABLE_FLUSH_ROWS = 50;
+
+    private static final DateTimeFormatter GENERATED_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    // Parsed once; a PdfFont is bound to a single document, so each document wraps this program
+    private final FontProgram fontProgram = loadFontProgram();
+
     /**
      * Generate monthly report as PDF
      */
     public byte[] generateMonthlyReportPDF(MonthlyReportResponse report) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            PdfWriter writer = new PdfWriter(baos);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf);
-
-            // Set up font (use Helvetica for now - supports basic characters)
-            PdfFont font = PdfFontFactory.createFont();
-            PdfFont boldFont = PdfFontFactory.createFont();
-
-            // Title
-            Paragraph title = new Paragraph("BAO CAO TAI CHINH THANG " + report.getMonth() + "/" + report.getYear())
-                    .setFont(boldFont)
-                    .setFontSize(20)
-                    .setFontColor(HEADER_COLOR)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setBold();
-            document.add(title);
-
-            // Generated date
-            String generatedDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-            Paragraph dateInfo = new Paragraph("Ngay tao: " + generatedDate)
-                    .setFont(font)
-                    .setFontSize(10)
-                    .setFontColor(ColorConstants.GRAY)
-                    .setTextAlignment(TextAlignment.CENTER);
-            document.add(dateInfo);
-
-            document.add(new Paragraph("\n"));
-
-            // Summary section
-            Paragraph summaryTitle = new Paragraph("TONG QUAN")
-                    .setFont(boldFont)
-                    .setFontSize(14)
-                    .setBold();
-            document.add(summaryTitle);
-
-            Table summaryTable = new Table(UnitValue.createPercentArray(new float[]{50, 50}))
-                    .useAllAvailableWidth();
-
-            addSummaryRow(summaryTable, "Tong Thu:", formatCurrency(report.getTotalIncome()), SUCCESS_COLOR, font);
-            addSummaryRow(summaryTable, "Tong Chi:", formatCurrency(report.getTotalExpense()), DANGER_COLOR, font);
-            addSummaryRow(summaryTable, "Tiet Kiem:", formatCurrency(report.getNetSavings()),
-                    report.getNetSavings().compareTo(java.math.BigDecimal.ZERO) >= 0 ? SUCCESS_COLOR : DANGER_COLOR, font);
-            addSummaryRow(summaryTable, "Ty Le Tiet Kiem:", String.format("%.1f%%", report.getSavingsRate()), HEADER_COLOR, font);
-
-            document.add(summaryTable);
-            document.add(new Paragraph("\n"));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeMonthlyReportPDF(report, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Generate yearly report as PDF
+     */
+    public byte[] generateYearlyReportPDF(YearlyReportResponse report) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeYearlyReportPDF(report, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Write monthly report PDF to the given stream (the stream is left open)
+     */
+    public void writeMonthlyReportPDF(MonthlyReportResponse report, OutputStream out) {
+        try (Document document = openDocument(out)) {
+            // Use Helvetica - supports basic characters
+            PdfFont font = PdfFontFactory.createFont(fontProgram);
+
+            addTitle(document, "BAO CAO TAI CHINH THANG " + report.getMonth() + "/" + report.getYear(), font);
+            addSummary(document, report.getTotalIncome(), report.getTotalExpense(), report.getNetSavings(),
+                    report.getSavingsRate(), font);
 
             // Income breakdown
             if (report.getIncomeByCategory() != null && !report.getIncomeByCategory().isEmpty()) {
-                Paragraph incomeTitle = new Paragraph("CHI TIET THU NHAP")
-                        .setFont(boldFont)
-                        .setFontSize(14)
-                        .setBold();
-                document.add(incomeTitle);
+                addSectionTitle(document, "CHI TIET THU NHAP", font);
 
-                Table incomeTable = new Table(UnitValue.createPercentArray(new float[]{40, 30, 15, 15}))
-                        .useAllAvailableWidth();
+                Table incomeTable = startTable(document, new float[]{40, 30, 15, 15},
+                        new String[]{"Danh Muc", "So Tien", "Phan Tram", "So GD"}, SUCCESS_COLOR, font);
 
-                // Header
-                addTableHeader(incomeTable, new String[]{"Danh Muc", "So Tien", "Phan Tram", "So GD"}, SUCCESS_COLOR, boldFont);
-
-                // Data rows
+                int rows = 0;
                 for (MonthlyReportResponse.CategorySummary category : report.getIncomeByCategory()) {
-                    incomeTable.addCell(new Cell().add(new Paragraph(romanizeVietnamese(category.getCategoryName())).setFont(font)));
-                    incomeTable.addCell(new Cell().add(new Paragraph(formatCurrency(category.getAmount())).setFont(font)));
-                    incomeTable.addCell(new Cell().add(new Paragraph(String.format("%.1f%%", category.getPercentage())).setFont(font)));
-                    incomeTable.addCell(new Cell().add(new Paragraph(String.valueOf(category.getTransactionCount())).setFont(font)));
+                    incomeTable.addCell(textCell(romanizeVietnamese(category.getCategoryName()), font));
+                    incomeTable.addCell(textCell(formatCurrency(category.getAmount()), font));
+                    incomeTable.addCell(textCell(String.format("%.1f%%", category.getPercentage()), font));
+                    incomeTable.addCell(textCell(String.valueOf(category.getTransactionCount()), font));
+                    flushPeriodically(incomeTable, ++rows);
                 }
 
-                document.add(incomeTable);
+                incomeTable.complete();
                 document.add(new Paragraph("\n"));
             }
 
             // Expense breakdown
             if (report.getExpenseByCategory() != null && !report.getExpenseByCategory().isEmpty()) {
-                Paragraph expenseTitle = new Paragraph("CHI TIET CHI TIEU")
-                        .setFont(boldFont)
-                        .setFontSize(14)
-                        .setBold();
-                document.add(expenseTitle);
-
-                Table expenseTable = new Table(UnitValue.createPercentArray(new float[]{30, 20, 12, 12, 13, 13}))
-                        .useAllAvailableWidth();
+                addSectionTitle(document, "CHI TIET CHI TIEU", font);
 
-                // Header
-                addTableHeader(expenseTable, new String[]{"Danh Muc", "So Tien", "%", "GD", "Ngan Sach", "Dung %"}, DANGER_COLOR, boldFont);
+                Table expenseTable = startTable(document, new float[]{30, 20, 12, 12, 13, 13},
+                        new String[]{"Danh Muc", "So Tien", "%", "GD", "Ngan Sach", "Dung %"}, DANGER_COLOR, font);
 
-                // Data rows
+                int rows = 0;
                 for (MonthlyReportResponse.CategorySummary category : report.getExpenseByCategory()) {
-                    expenseTable.addCell(new Cell().add(new Paragraph(romanizeVietnamese(category.getCategoryName())).setFont(font)));
-                    expenseTable.addCell(new Cell().add(new Paragraph(formatCurrency(category.getAmount())).setFont(font)));
-                    expenseTable.addCell(new Cell().add(new Paragraph(String.format("%.1f", category.getPercentage())).setFont(font)));
-                    expenseTable.addCell(new Cell().add(new Paragraph(String.valueOf(category.getTransactionCount())).setFont(font)));
+                    expenseTable.addCell(textCell(romanizeVietnamese(category.getCategoryName()), font));
+                    expenseTable.addCell(textCell(formatCurrency(category.getAmount()), font));
+                    expenseTable.addCell(textCell(String.format("%.1f", category.getPercentage()), font));
+                    expenseTable.addCell(textCell(String.valueOf(category.getTransactionCount()), font));
 
                     String budgetStr = category.getBudgetAmount() != null ?
                             formatCurrency(category.getBudgetAmount()) : "N/A";
                     String usageStr = category.getBudgetUsagePercent() != null ?
                             String.format("%.1f", category.getBudgetUsagePercent()) : "N/A";
 
-                    expenseTable.addCell(new Cell().add(new Paragraph(budgetStr).setFont(font)));
-                    expenseTable.addCell(new Cell().add(new Paragraph(usageStr).setFont(font)));
+                    expenseTable.addCell(textCell(budgetStr, font));
+                    expenseTable.addCell(textCell(usageStr, font));
+                    flushPeriodically(expenseTable, ++rows);
                 }
 
-                document.add(expenseTable);
+                expenseTable.complete();
                 document.add(new Paragraph("\n"));
             }
 
-            // Top categories
-            if (report.getTopExpenseCategories() != null && !report.getTopExpenseCategories().isEmpty()) {
-                Paragraph topTitle = new Paragraph("TOP 5 DANH MUC CHI NHIEU NHAT")
-                        .setFont(boldFont)
-                        .setFontSize(14)
-                        .setBold();
-                document.add(topTitle);
-
-                Table topTable = new Table(UnitValue.createPercentArray(new float[]{15, 50, 35}))
-                        .useAllAvailableWidth();
-
-                addTableHeader(topTable, new String[]{"#", "Danh Muc", "So Tien"}, HEADER_COLOR, boldFont);
-
-                int rank = 1;
-                for (MonthlyReportResponse.CategorySummary category : report.getTopExpenseCategories()) {
-                    topTable.addCell(new Cell().add(new Paragraph(String.valueOf(rank++)).setFont(font)));
-                    topTable.addCell(new Cell().add(new Paragraph(romanizeVietnamese(category.getCategoryName())).setFont(font)));
-                    topTable.addCell(new Cell().add(new Paragraph(formatCurrency(category.getAmount())).setFont(font)));
-                }
-
-                document.add(topTable);
-            }
-
-            // Footer
-            document.add(new Paragraph("\n"));
-            Paragraph footer = new Paragraph("--- Bao cao duoc tao tu dong boi MyFinance ---")
-                    .setFont(font)
-                    .setFontSize(8)
-                    .setFontColor(ColorConstants.GRAY)
-                    .setTextAlignment(TextAlignment.CENTER);
-            document.add(footer);
-
-            document.close();
+            addTopCategories(document, report.getTopExpenseCategories(), font);
+            addFooter(document, font);
 
             log.info("Generated monthly report PDF for {}/{}", report.getMonth(), report.getYear());
-            return baos.toByteArray();
 
         } catch (Exception e) {
             log.error("Failed to generate monthly report PDF", e);
@@ -189,120 +141,157 @@ public class PDFReportGenerator {
     }
 
     /**
-     * Generate yearly report as PDF
+     * Write yearly report PDF to the given stream (the stream is left open)
      */
-    public byte[] generateYearlyReportPDF(YearlyReportResponse report) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            PdfWriter writer = new PdfWriter(baos);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf);
-
-            PdfFont font = PdfFontFactory.createFont();
-            PdfFont boldFont = PdfFontFactory.createFont();
-
-            // Title
-            Paragraph title = new Paragraph("BAO CAO TAI CHINH NAM " + report.getYear())
-                    .setFont(boldFont)
-                    .setFontSize(20)
-                    .setFontColor(HEADER_COLOR)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setBold();
-            document.add(title);
-
-            // Generated date
-            String generatedDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-            Paragraph dateInfo = new Paragraph("Ngay tao: " + generatedDate)
-                    .setFont(font)
-                    .setFontSize(10)
-                    .setFontColor(ColorConstants.GRAY)
-                    .setTextAlignment(TextAlignment.CENTER);
-            document.add(dateInfo);
-
-            document.add(new Paragraph("\n"));
-
-            // Summary section
-            Paragraph summaryTitle = new Paragraph("TONG QUAN")
-                    .setFont(boldFont)
-                    .setFontSize(14)
-                    .setBold();
-            document.add(summaryTitle);
-
-            Table summaryTable = new Table(UnitValue.createPercentArray(new float[]{50, 50}))
-                    .useAllAvailableWidth();
-
-            addSummaryRow(summaryTable, "Tong Thu:", formatCurrency(report.getTotalIncome()), SUCCESS_COLOR, font);
-            addSummaryRow(summaryTable, "Tong Chi:", formatCurrency(report.getTotalExpense()), DANGER_COLOR, font);
-            addSummaryRow(summaryTable, "Tiet Kiem:", formatCurrency(report.getNetSavings()),
-                    report.getNetSavings().compareTo(java.math.BigDecimal.ZERO) >= 0 ? SUCCESS_COLOR : DANGER_COLOR, font);
-            addSummaryRow(summaryTable, "Ty Le Tiet Kiem:", String.format("%.1f%%", report.getSavingsRate()), HEADER_COLOR, font);
-
-            document.add(summaryTable);
-            document.add(new Paragraph("\n"));
+    public void writeYearlyReportPDF(YearlyReportResponse report, OutputStream out) {
+        try (Document document = openDocument(out)) {
+            PdfFont font = PdfFontFactory.createFont(fontProgram);
+
+            addTitle(document, "BAO CAO TAI CHINH NAM " + report.getYear(), font);
+            addSummary(document, report.getTotalIncome(), report.getTotalExpense(), report.getNetSavings(),
+                    report.getSavingsRate(), font);
 
             // Monthly trends
             if (report.getMonthlyTrends() != null && !report.getMonthlyTrends().isEmpty()) {
-                Paragraph trendsTitle = new Paragraph("CHI TIET THEO THANG")
-                        .setFont(boldFont)
-                        .setFontSize(14)
-                        .setBold();
-                document.add(trendsTitle);
+                addSectionTitle(document, "CHI TIET THEO THANG", font);
 
-                Table trendsTable = new Table(UnitValue.createPercentArray(new float[]{25, 25, 25, 25}))
-                        .useAllAvailableWidth();
-
-                addTableHeader(trendsTable, new String[]{"Thang", "Thu Nhap", "Chi Tieu", "Tiet Kiem"}, HEADER_COLOR, boldFont);
+                Table trendsTable = startTable(document, new float[]{25, 25, 25, 25},
+                        new String[]{"Thang", "Thu Nhap", "Chi Tieu", "Tiet Kiem"}, HEADER_COLOR, font);
 
+                int rows = 0;
                 for (YearlyReportResponse.MonthlyTrend trend : report.getMonthlyTrends()) {
-                    trendsTable.addCell(new Cell().add(new Paragraph(getVietnameseMonthName(trend.getMonth())).setFont(font)));
-                    trendsTable.addCell(new Cell().add(new Paragraph(formatCurrency(trend.getIncome())).setFont(font)));
-                    trendsTable.addCell(new Cell().add(new Paragraph(formatCurrency(trend.getExpense())).setFont(font)));
-                    trendsTable.addCell(new Cell().add(new Paragraph(formatCurrency(trend.getSavings())).setFont(font)));
+                    trendsTable.addCell(textCell(getVietnameseMonthName(trend.getMonth()), font));
+                    trendsTable.addCell(textCell(formatCurrency(trend.getIncome()), font));
+                    trendsTable.addCell(textCell(formatCurrency(trend.getExpense()), font));
+                    trendsTable.addCell(textCell(formatCurrency(trend.getSavings()), font));
+                    flushPeriodically(trendsTable, ++rows);
                 }
 
-                document.add(trendsTable);
+                trendsTable.complete();
                 document.add(new Paragraph("\n"));
             }
 
-            // Top categories
-            if (report.getTopExpenseCategories() != null && !report.getTopExpenseCategories().isEmpty()) {
-                Paragraph topTitle = new Paragraph("TOP 5 DANH MUC CHI NHIEU NHAT")
-                        .setFont(boldFont)
-                        .setFontSize(14)
-                        .setBold();
-                document.add(topTitle);
+            addTopCategories(document, report.getTopExpenseCategories(), font);
+            addFooter(document, font);
 
-                Table topTable = new Table(UnitValue.createPercentArray(new float[]{15, 50, 35}))
-                        .useAllAvailableWidth();
+            log.info("Generated yearly report PDF for {}", report.getYear());
 
-                addTableHeader(topTable, new String[]{"#", "Danh Muc", "So Tien"}, HEADER_COLOR, boldFont);
+        } catch (Exception e) {
+            log.error("Failed to generate yearly report PDF", e);
+            throw new RuntimeException("Khong the tao bao cao PDF: " + e.getMessage());
+        }
+    }
 
-                int rank = 1;
-                for (MonthlyReportResponse.CategorySummary category : report.getTopExpenseCategories()) {
-                    topTable.addCell(new Cell().add(new Paragraph(String.valueOf(rank++)).setFont(font)));
-                    topTable.addCell(new Cell().add(new Paragraph(romanizeVietnamese(category.getCategoryName())).setFont(font)));
-                    topTable.addCell(new Cell().add(new Paragraph(formatCurrency(category.getAmount())).setFont(font)));
-                }
+    // ===== DOCUMENT SECTIONS =====
 
-                document.add(topTable);
-            }
+    /**
+     * Open a document that flushes finished pages to the stream without closing it
+     */
+    private Document openDocument(OutputStream out) {
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
+        return new Document(new PdfDocument(writer), PageSize.A4, true);
+    }
 
-            // Footer
-            document.add(new Paragraph("\n"));
-            Paragraph footer = new Paragraph("--- Bao cao duoc tao tu dong boi MyFinance ---")
-                    .setFont(font)
-                    .setFontSize(8)
-                    .setFontColor(ColorConstants.GRAY)
-                    .setTextAlignment(TextAlignment.CENTER);
-            document.add(footer);
+    private void addTitle(Document document, String text, PdfFont font) {
+        document.add(new Paragraph(text)
+                .setFont(font)
+                .setFontSize(20)
+                .setFontColor(HEADER_COLOR)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setBold());
+
+        // Generated date
+        String generatedDate = LocalDateTime.now().format(GENERATED_DATE_FORMAT);
+        document.add(new Paragraph("Ngay tao: " + generatedDate)
+                .setFont(font)
+                .setFontSize(10)
+                .setFontColor(ColorConstants.GRAY)
+                .setTextAlignment(TextAlignment.CENTER));
+
+        document.add(new Paragraph("\n"));
+    }
 
-            document.close();
+    private void addSummary(Document document, BigDecimal income, BigDecimal expense,
+                            BigDecimal savings, Double savingsRate, PdfFont font) {
+        addSectionTitle(document, "TONG QUAN", font);
 
-            log.info("Generated yearly report PDF for {}", report.getYear());
-            return baos.toByteArray();
+        Table summaryTable = new Table(UnitValue.createPercentArray(new float[]{50, 50}))
+                .useAllAvailableWidth();
 
-        } catch (Exception e) {
-            log.error("Failed to generate yearly report PDF", e);
-            throw new RuntimeException("Khong the tao bao cao PDF: " + e.getMessage());
+        addSummaryRow(summaryTable, "Tong Thu:", formatCurrency(income), SUCCESS_COLOR, font);
+        addSummaryRow(summaryTable, "Tong Chi:", formatCurrency(expense), DANGER_COLOR, font);
+        addSummaryRow(summaryTable, "Tiet Kiem:", formatCurrency(savings),
+                savings.compareTo(BigDecimal.ZERO) >= 0 ? SUCCESS_COLOR : DANGER_COLOR, font);
+        addSummaryRow(summaryTable, "Ty Le Tiet Kiem:", String.format("%.1f%%", savingsRate), HEADER_COLOR, font);
+
+        document.add(summaryTable);
+        document.add(new Paragraph("\n"));
+    }
+
+    private void addTopCategories(Document document, List<MonthlyReportResponse.CategorySummary> categories,
+                                  PdfFont font) {
+        if (categories == null || categories.isEmpty()) {
+            return;
+        }
+
+        addSectionTitle(document, "TOP 5 DANH MUC CHI NHIEU NHAT", font);
+
+        Table topTable = startTable(document, new float[]{15, 50, 35},
+                new String[]{"#", "Danh Muc", "So Tien"}, HEADER_COLOR, font);
+
+        int rank = 1;
+        for (MonthlyReportResponse.CategorySummary category : categories) {
+            topTable.addCell(textCell(String.valueOf(rank++), font));
+            topTable.addCell(textCell(romanizeVietnamese(category.getCategoryName()), font));
+            topTable.addCell(textCell(formatCurrency(category.getAmount()), font));
+        }
+
+        topTable.complete();
+    }
+
+    private void addFooter(Document document, PdfFont font) {
+        document.add(new Paragraph("\n"));
+        document.add(new Paragraph("--- Bao cao duoc tao tu dong boi MyFinance ---")
+                .setFont(font)
+                .setFontSize(8)
+                .setFontColor(ColorConstants.GRAY)
+                .setTextAlignment(TextAlignment.CENTER));
+    }
+
+    private void addSectionTitle(Document document, String text, PdfFont font) {
+        document.add(new Paragraph(text)
+                .setFont(font)
+                .setFontSize(14)
+                .setBold());
+    }
+
+    /**
+     * Create a large table with its header and attach it to the document so rows can be flushed as they are added
+     */
+    private Table startTable(Document document, float[] widths, String[] headers, DeviceRgb headerColor, PdfFont font) {
+        Table table = new Table(UnitValue.createPercentArray(widths), true)
+                .useAllAvailableWidth();
+        addTableHeader(table, headers, headerColor, font);
+        document.add(table);
+        return table;
+    }
+
+    private void flushPeriodically(Table table, int rows) {
+        if (rows % TABLE_FLUSH_ROWS == 0) {
+            table.flush();
+        }
+    }
+
+    private Cell textCell(String text, PdfFont font) {
+        return new Cell().add(new Paragraph(text).setFont(font));
+    }
+
+    private static FontProgram loadFontProgram() {
+        try {
+            return FontProgramFactory.createFont();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Khong the tai font PDF", e);
         }
     }
 
@@ -329,7 +318,7 @@ public class PDFReportGenerator {
     /**
      * Format currency amount
      */
-    private String formatCurrency(java.math.BigDecimal amount) {
+    private String formatCurrency(BigDecimal amount) {
         if (amount == null) return "0 VND";
         return String.format("%,.0f VND", amount);
     }
@@ -353,44 +342,44 @@ public class PDFReportGenerator {
     private String romanizeVietnamese(String text) {
         if (text == null) return null;
 
-        // Vietnamese character mappings to ASCII
-        String[][] replacements = {
-            // Lowercase vowels with tones
-            {"á", "a"}, {"à", "a"}, {"ả", "a"}, {"ã", "a"}, {"ạ", "a"},
-            {"ă", "a"}, {"ắ", "a"}, {"ằ", "a"}, {"ẳ", "a"}, {"ẵ", "a"}, {"ặ", "a"},
-            {"â", "a"}, {"ấ", "a"}, {"ầ", "a"}, {"ẩ", "a"}, {"ẫ", "a"}, {"ậ", "a"},
-            {"é", "e"}, {"è", "e"}, {"ẻ", "e"}, {"ẽ", "e"}, {"ẹ", "e"},
-            {"ê", "e"}, {"ế", "e"}, {"ề", "e"}, {"ể", "e"}, {"ễ", "e"}, {"ệ", "e"},
-            {"í", "i"}, {"ì", "i"}, {"ỉ", "i"}, {"ĩ", "i"}, {"ị", "i"},
-            {"ó", "o"}, {"ò", "o"}, {"ỏ", "o"}, {"õ", "o"}, {"ọ", "o"},
-            {"ô", "o"}, {"ố", "o"}, {"ồ", "o"}, {"ổ", "o"}, {"ỗ", "o"}, {"ộ", "o"},
-            {"ơ", "o"}, {"ớ", "o"}, {"ờ", "o"}, {"ở", "o"}, {"ỡ", "o"}, {"ợ", "o"},
-            {"ú", "u"}, {"ù", "u"}, {"ủ", "u"}, {"ũ", "u"}, {"ụ", "u"},
-            {"ư", "u"}, {"ứ", "u"}, {"ừ", "u"}, {"ử", "u"}, {"ữ", "u"}, {"ự", "u"},
-            {"ý", "y"}, {"ỳ", "y"}, {"ỷ", "y"}, {"ỹ", "y"}, {"ỵ", "y"},
-            {"đ", "d"},
-
-            // Uppercase vowels with tones
-            {"Á", "A"}, {"À", "A"}, {"Ả", "A"}, {"Ã", "A"}, {"Ạ", "A"},
-            {"Ă", "A"}, {"Ắ", "A"}, {"Ằ", "A"}, {"Ẳ", "A"}, {"Ẵ", "A"}, {"Ặ", "A"},
-            {"Â", "A"}, {"Ấ", "A"}, {"Ầ", "A"}, {"Ẩ", "A"}, {"Ẫ", "A"}, {"Ậ", "A"},
-            {"É", "E"}, {"È", "E"}, {"Ẻ", "E"}, {"Ẽ", "E"}, {"Ẹ", "E"},
-            {"Ê", "E"}, {"Ế", "E"}, {"Ề", "E"}, {"Ể", "E"}, {"Ễ", "E"}, {"Ệ", "E"},
-            {"Í", "I"}, {"Ì", "I"}, {"Ỉ", "I"}, {"Ĩ", "I"}, {"Ị", "I"},
-            {"Ó", "O"}, {"Ò", "O"}, {"Ỏ", "O"}, {"Õ", "O"}, {"Ọ", "O"},
-            {"Ô", "O"}, {"Ố", "O"}, {"Ồ", "O"}, {"Ổ", "O"}, {"Ỗ", "O"}, {"Ộ", "O"},
-            {"Ơ", "O"}, {"Ớ", "O"}, {"Ờ", "O"}, {"Ở", "O"}, {"Ỡ", "O"}, {"Ợ", "O"},
-            {"Ú", "U"}, {"Ù", "U"}, {"Ủ", "U"}, {"Ũ", "U"}, {"Ụ", "U"},
-            {"Ư", "U"}, {"Ứ", "U"}, {"Ừ", "U"}, {"Ử", "U"}, {"Ữ", "U"}, {"Ự", "U"},
-            {"Ý", "Y"}, {"Ỳ", "Y"}, {"Ỷ", "Y"}, {"Ỹ", "Y"}, {"Ỵ", "Y"},
-            {"Đ", "D"}
-        };
-
         String result = text;
-        for (String[] pair : replacements) {
+        for (String[] pair : VIETNAMESE_REPLACEMENTS) {
             result = result.replace(pair[0], pair[1]);
         }
 
         return result;
     }
+
+    // Vietnamese character mappings to ASCII
+    private static final String[][] VIETNAMESE_REPLACEMENTS = {
+        // Lowercase vowels with tones
+        {"á", "a"}, {"à", "a"}, {"ả", "a"}, {"ã", "a"}, {"ạ", "a"},
+        {"ă", "a"}, {"ắ", "a"}, {"ằ", "a"}, {"ẳ", "a"}, {"ẵ", "a"}, {"ặ", "a"},
+        {"â", "a"}, {"ấ", "a"}, {"ầ", "a"}, {"ẩ", "a"}, {"ẫ", "a"}, {"ậ", "a"},
+        {"é", "e"}, {"è", "e"}, {"ẻ", "e"}, {"ẽ", "e"}, {"ẹ", "e"},
+        {"ê", "e"}, {"ế", "e"}, {"ề", "e"}, {"ể", "e"}, {"ễ", "e"}, {"ệ", "e"},
+        {"í", "i"}, {"ì", "i"}, {"ỉ", "i"}, {"ĩ", "i"}, {"ị", "i"},
+        {"ó", "o"}, {"ò", "o"}, {"ỏ", "o"}, {"õ", "o"}, {"ọ", "o"},
+        {"ô", "o"}, {"ố", "o"}, {"ồ", "o"}, {"ổ", "o"}, {"ỗ", "o"}, {"ộ", "o"},
+        {"ơ", "o"}, {"ớ", "o"}, {"ờ", "o"}, {"ở", "o"}, {"ỡ", "o"}, {"ợ", "o"},
+        {"ú", "u"}, {"ù", "u"}, {"ủ", "u"}, {"ũ", "u"}, {"ụ", "u"},
+        {"ư", "u"}, {"ứ", "u"}, {"ừ", "u"}, {"ử", "u"}, {"ữ", "u"}, {"ự", "u"},
+        {"ý", "y"}, {"ỳ", "y"}, {"ỷ", "y"}, {"ỹ", "y"}, {"ỵ", "y"},
+        {"đ", "d"},
+
+        // Uppercase vowels with tones
+        {"Á", "A"}, {"À", "A"}, {"Ả", "A"}, {"Ã", "A"}, {"Ạ", "A"},
+        {"Ă", "A"}, {"Ắ", "A"}, {"Ằ", "A"}, {"Ẳ", "A"}, {"Ẵ", "A"}, {"Ặ", "A"},
+        {"Â", "A"}, {"Ấ", "A"}, {"Ầ", "A"}, {"Ẩ", "A"}, {"Ẫ", "A"}, {"Ậ", "A"},
+        {"É", "E"}, {"È", "E"}, {"Ẻ", "E"}, {"Ẽ", "E"}, {"Ẹ", "E"},
+        {"Ê", "E"}, {"Ế", "E"}, {"Ề", "E"}, {"Ể", "E"}, {"Ễ", "E"}, {"Ệ", "E"},
+        {"Í", "I"}, {"Ì", "I"}, {"Ỉ", "I"}, {"Ĩ", "I"}, {"Ị", "I"},
+        {"Ó", "O"}, {"Ò", "O"}, {"Ỏ", "O"}, {"Õ", "O"}, {"Ọ", "O"},
+        {"Ô", "O"}, {"Ố", "O"}, {"Ồ", "O"}, {"Ổ", "O"}, {"Ỗ", "O"}, {"Ộ", "O"},
+        {"Ơ", "O"}, {"Ớ", "O"}, {"Ờ", "O"}, {"Ở", "O"}, {"Ỡ", "O"}, {"Ợ", "O"},
+        {"Ú", "U"}, {"Ù", "U"}, {"Ủ", "U"}, {"Ũ", "U"}, {"Ụ", "U"},
+        {"Ư", "U"}, {"Ứ", "U"}, {"Ừ", "U"}, {"Ử", "U"}, {"Ữ", "U"}, {"Ự", "U"},
+        {"Ý", "Y"}, {"Ỳ", "Y"}, {"Ỷ", "Y"}, {"Ỹ", "Y"}, {"Ỵ", "Y"},
+        {"Đ", "D"}
+    };
 }
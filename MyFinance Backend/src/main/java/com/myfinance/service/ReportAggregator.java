@@ -0,0 +1,181 @@
+package com.myfinance.service;
+
+import com.myfinance.entity.Category;
+import com.myfinance.entity.Transaction;
+import com.myfinance.entity.TransactionType;
+import com.myfinance.entity.UserMonthCategoryTotal;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Single-pass report aggregation shared by the monthly, yearly and category reports.
+ * Each input (a raw transaction or a pre-aggregated rollup row) is folded once into
+ * per-type, per-month and per-category accumulators that hold amounts as long cents.
+ * Not thread-safe; create one per report.
+ */
+public class ReportAggregator {
+
+    private static final int TYPE_COUNT = TransactionType.values().length;
+
+    private final Accumulator[] typeTotals = newAccumulators();
+    private final Map<Integer, Accumulator[]> monthTotals = new HashMap<>();
+    private final Map<Long, Accumulator[]> categoryTotals = new LinkedHashMap<>();
+    private final Map<Long, Category> categories = new HashMap<>();
+
+    public ReportAggregator addTransaction(Transaction transaction) {
+        long cents = toCents(transaction.getAmount());
+        LocalDate date = transaction.getTransactionDate();
+        add(monthIndex(date.getYear(), date.getMonthValue()), transaction.getCategory(), transaction.getType(),
+                cents, 1, cents, cents);
+        return this;
+    }
+
+    public ReportAggregator addRollup(UserMonthCategoryTotal row) {
+        if (row.getTransactionCount() == null) {
+            return this;
+        }
+        return addMonthBucket(row.getPeriodYear(), row.getPeriodMonth(), row.getCategory(), row.getType(),
+                row.getTotalAmount(), row.getTransactionCount(), row.getMinAmount(), row.getMaxAmount());
+    }
+
+    /**
+     * Add a pre-aggregated (month, category, type) bucket, e.g. a rollup row or a GROUP BY result
+     */
+    public ReportAggregator addMonthBucket(int year, int month, Category category, TransactionType type,
+                                           BigDecimal sum, long count, BigDecimal min, BigDecimal max) {
+        if (count <= 0) {
+            return this;
+        }
+        long minCents = min != null ? toCents(min) : Long.MAX_VALUE;
+        long maxCents = max != null ? toCents(max) : Long.MIN_VALUE;
+        add(monthIndex(year, month), category, type, toCents(sum), count, minCents, maxCents);
+        return this;
+    }
+
+    public ReportAggregator addRollups(Iterable<UserMonthCategoryTotal> rows) {
+        for (UserMonthCategoryTotal row : rows) {
+            addRollup(row);
+        }
+        return this;
+    }
+
+    private void add(int monthIndex, Category category, TransactionType type,
+                     long sumCents, long count, long minCents, long maxCents) {
+        int t = type.ordinal();
+        typeTotals[t].add(sumCents, count, minCents, maxCents);
+        monthTotals.computeIfAbsent(monthIndex, k -> newAccumulators())[t].add(sumCents, count, minCents, maxCents);
+        categoryTotals.computeIfAbsent(category.getId(), k -> newAccumulators())[t].add(sumCents, count, minCents, maxCents);
+        categories.putIfAbsent(category.getId(), category);
+    }
+
+    // ===== QUERIES =====
+
+    public Accumulator total(TransactionType type) {
+        return typeTotals[type.ordinal()];
+    }
+
+    public long totalCount() {
+        long count = 0;
+        for (Accumulator accumulator : typeTotals) {
+            count += accumulator.count;
+        }
+        return count;
+    }
+
+    public BigDecimal totalAmount() {
+        long cents = 0;
+        for (Accumulator accumulator : typeTotals) {
+            cents += accumulator.sumCents;
+        }
+        return fromCents(cents);
+    }
+
+    public Accumulator monthTotal(int year, int month, TransactionType type) {
+        Accumulator[] accumulators = monthTotals.get(monthIndex(year, month));
+        return accumulators != null ? accumulators[type.ordinal()] : Accumulator.EMPTY;
+    }
+
+    /**
+     * Per-category accumulators of one type, in first-seen order; categories without that type are skipped
+     */
+    public Map<Category, Accumulator> byCategory(TransactionType type) {
+        Map<Category, Accumulator> result = new LinkedHashMap<>();
+        for (Map.Entry<Long, Accumulator[]> entry : categoryTotals.entrySet()) {
+            Accumulator accumulator = entry.getValue()[type.ordinal()];
+            if (!accumulator.isEmpty()) {
+                result.put(categories.get(entry.getKey()), accumulator);
+            }
+        }
+        return result;
+    }
+
+    // ===== HELPERS =====
+
+    public static int monthIndex(int year, int month) {
+        return year * 12 + (month - 1);
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static Accumulator[] newAccumulators() {
+        Accumulator[] accumulators = new Accumulator[TYPE_COUNT];
+        for (int i = 0; i < TYPE_COUNT; i++) {
+            accumulators[i] = new Accumulator();
+        }
+        return accumulators;
+    }
+
+    /**
+     * Sum, count, min and max of a bucket, in cents
+     */
+    public static final class Accumulator {
+        private static final Accumulator EMPTY = new Accumulator();
+
+        private long sumCents;
+        private long count;
+        private long minCents = Long.MAX_VALUE;
+        private long maxCents = Long.MIN_VALUE;
+
+        private void add(long sum, long n, long min, long max) {
+            sumCents += sum;
+            count += n;
+            if (min < minCents) {
+                minCents = min;
+            }
+            if (max > maxCents) {
+                maxCents = max;
+            }
+        }
+
+        public boolean isEmpty() {
+            return count == 0;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public BigDecimal getSum() {
+            return fromCents(sumCents);
+        }
+
+        public BigDecimal getMin() {
+            return minCents == Long.MAX_VALUE ? BigDecimal.ZERO : fromCents(minCents);
+        }
+
+        public BigDecimal getMax() {
+            return maxCents == Long.MIN_VALUE ? BigDecimal.ZERO : fromCents(maxCents);
+        }
+    }
+}
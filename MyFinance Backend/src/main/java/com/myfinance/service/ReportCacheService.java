@@ -0,0 +1,240 @@
+package com.myfinance.service;
+
+import com.myfinance.dto.response.MonthlyReportResponse;
+import com.myfinance.dto.response.YearlyReportResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of generated monthly/yearly reports keyed by (user, report type, period).
+ * Entries are evicted when the user writes a transaction or budget touching the period.
+ * Closed periods stay cached until their data changes; the open period also expires after a TTL.
+ */
+@Service
+@Slf4j
+public class ReportCacheService {
+
+    private enum ReportKind { MONTHLY, YEARLY }
+
+    private record ReportKey(Long userId, ReportKind kind, int year, int month) {
+    }
+
+    private record CacheEntry(Object report, int weight, long expiresAt) {
+    }
+
+    @Value("${app.report-cache.max-weight:20000}")
+    private long maxWeight;
+
+    @Value("${app.report-cache.open-period-ttl-ms:300000}")
+    private long openPeriodTtlMs;
+
+    // Access-ordered for LRU eviction; guarded by "this"
+    private final LinkedHashMap<ReportKey, CacheEntry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long currentWeight;
+
+    // Bumped on every invalidation so a report computed before a write is never stored after it
+    private final Map<Long, AtomicLong> userVersions = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public MonthlyReportResponse getMonthly(Long userId, int year, int month, Supplier<MonthlyReportResponse> loader) {
+        return get(new ReportKey(userId, ReportKind.MONTHLY, year, month), loader);
+    }
+
+    public YearlyReportResponse getYearly(Long userId, int year, Supplier<YearlyReportResponse> loader) {
+        return get(new ReportKey(userId, ReportKind.YEARLY, year, 0), loader);
+    }
+
+    /**
+     * Evict reports that read data from the month containing the given date:
+     * that month, the following month (previous-month comparison) and the matching yearly reports
+     */
+    public void evictForTransaction(Long userId, LocalDate transactionDate) {
+        LocalDate nextMonth = transactionDate.plusMonths(1);
+        afterCommit(userId, () -> {
+            remove(new ReportKey(userId, ReportKind.MONTHLY, transactionDate.getYear(), transactionDate.getMonthValue()));
+            remove(new ReportKey(userId, ReportKind.MONTHLY, nextMonth.getYear(), nextMonth.getMonthValue()));
+            remove(new ReportKey(userId, ReportKind.YEARLY, transactionDate.getYear(), 0));
+            remove(new ReportKey(userId, ReportKind.YEARLY, transactionDate.getYear() + 1, 0));
+        });
+    }
+
+    /**
+     * Evict reports that show budget comparison data for the given budget period
+     */
+    public void evictForBudget(Long userId, int budgetYear, int budgetMonth) {
+        afterCommit(userId, () -> {
+            remove(new ReportKey(userId, ReportKind.MONTHLY, budgetYear, budgetMonth));
+            remove(new ReportKey(userId, ReportKind.YEARLY, budgetYear, 0));
+        });
+    }
+
+    /**
+     * Evict every cached report of a user (e.g. a category was renamed)
+     */
+    public void evictUser(Long userId) {
+        afterCommit(userId, () -> removeIf(key -> key.userId().equals(userId)));
+    }
+
+    /**
+     * Drop all cached reports (e.g. after rebuilding the monthly rollup), once the surrounding transaction commits
+     */
+    public void clear() {
+        runAfterCommit(this::clearNow);
+    }
+
+    private synchronized void clearNow() {
+        userVersions.values().forEach(AtomicLong::incrementAndGet);
+        entries.clear();
+        currentWeight = 0;
+        log.info("Report cache cleared");
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("size", entries.size());
+            stats.put("weight", currentWeight);
+        }
+        stats.put("maxWeight", maxWeight);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("hitRate", requests == 0 ? 0.0 : Math.round(hitCount * 10000.0 / requests) / 100.0);
+        return stats;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(ReportKey key, Supplier<T> loader) {
+        long now = System.currentTimeMillis();
+
+        synchronized (this) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt() > now) {
+                    hits.incrementAndGet();
+                    return (T) entry.report();
+                }
+                removeEntry(key);
+            }
+        }
+
+        misses.incrementAndGet();
+        long version = versionOf(key.userId()).get();
+        T report = loader.get();
+
+        synchronized (this) {
+            // Skip the store if the user's data changed while the report was being built
+            if (versionOf(key.userId()).get() == version) {
+                put(key, new CacheEntry(report, weigh(report), expiresAt(key, now)));
+            }
+        }
+        return report;
+    }
+
+    private void put(ReportKey key, CacheEntry entry) {
+        removeEntry(key);
+        entries.put(key, entry);
+        currentWeight += entry.weight();
+
+        Iterator<Map.Entry<ReportKey, CacheEntry>> it = entries.entrySet().iterator();
+        while (currentWeight > maxWeight && it.hasNext()) {
+            currentWeight -= it.next().getValue().weight();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private synchronized void remove(ReportKey key) {
+        removeEntry(key);
+    }
+
+    private synchronized void removeIf(Predicate<ReportKey> predicate) {
+        Iterator<Map.Entry<ReportKey, CacheEntry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<ReportKey, CacheEntry> entry = it.next();
+            if (predicate.test(entry.getKey())) {
+                currentWeight -= entry.getValue().weight();
+                it.remove();
+            }
+        }
+    }
+
+    private void removeEntry(ReportKey key) {
+        CacheEntry removed = entries.remove(key);
+        if (removed != null) {
+            currentWeight -= removed.weight();
+        }
+    }
+
+    /**
+     * Run an invalidation once the surrounding transaction commits, or immediately outside one
+     */
+    private void afterCommit(Long userId, Runnable invalidation) {
+        runAfterCommit(() -> {
+            versionOf(userId).incrementAndGet();
+            invalidation.run();
+        });
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private AtomicLong versionOf(Long userId) {
+        return userVersions.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    private long expiresAt(ReportKey key, long now) {
+        LocalDate today = LocalDate.now();
+        boolean openPeriod = key.kind() == ReportKind.YEARLY
+            ? key.year() >= today.getYear()
+            : LocalDate.of(key.year(), key.month(), 1).plusMonths(1).isAfter(today);
+        return openPeriod ? now + openPeriodTtlMs : Long.MAX_VALUE;
+    }
+
+    // Approximate size by the number of nested rows a report carries
+    private int weigh(Object report) {
+        if (report instanceof MonthlyReportResponse monthly) {
+            return 1 + sizeOf(monthly.getIncomeByCategory()) + sizeOf(monthly.getExpenseByCategory());
+        }
+        if (report instanceof YearlyReportResponse yearly) {
+            return 1 + sizeOf(yearly.getMonthlyTrends())
+                + sizeOf(yearly.getYearlyIncomeByCategory()) + sizeOf(yearly.getYearlyExpenseByCategory())
+                + sizeOf(yearly.getTopIncomeCategories()) + sizeOf(yearly.getTopExpenseCategories());
+        }
+        return 1;
+    }
+
+    private static int sizeOf(Collection<?> collection) {
+        return collection == null ? 0 : collection.size();
+    }
+}
@@ -0,0 +1,301 @@
+package com.myfinance.service;
+
+import com.myfinance.dto.request.ReportJobRequest;
+import com.myfinance.dto.response.MonthlyReportResponse;
+import com.myfinance.dto.response.ReportJobResponse;
+import com.myfinance.dto.response.YearlyReportResponse;
+import com.myfinance.entity.ScheduledReport;
+import com.myfinance.exception.BadRequestException;
+import com.myfinance.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Runs on-demand report generation off the request thread.
+ * Artifacts are written to a local directory and removed after a TTL; submitting the same
+ * (user, type, period, format) while a job is still running returns that job instead of a new one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportJobService {
+
+    public enum JobStatus { PENDING, RUNNING, COMPLETED, FAILED }
+
+    private record JobKey(Long userId, ScheduledReport.ReportType reportType, int year, int month,
+                          ScheduledReport.ReportFormat format) {
+    }
+
+    // "<uuid>.<ext>" - only files this service wrote are ever deleted from the directory
+    private static final Pattern ARTIFACT_NAME = Pattern.compile("[0-9a-f\\-]{36}\\.(pdf|csv|zip)");
+
+    private final ReportService reportService;
+    private final PDFReportGenerator pdfReportGenerator;
+    private final CSVReportGenerator csvReportGenerator;
+    @Qualifier("reportJobExecutor")
+    private final TaskExecutor reportJobExecutor;
+
+    @Value("${app.report-jobs.storage-dir:${java.io.tmpdir}/myfinance-report-jobs}")
+    private String storageDir;
+
+    @Value("${app.report-jobs.artifact-ttl-ms:3600000}")
+    private long artifactTtlMs;
+
+    private Path storagePath;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<JobKey, ReportJob> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        storagePath = Paths.get(storageDir);
+        Files.createDirectories(storagePath);
+
+        // Job records are in memory, so artifacts left by a previous run can never be downloaded
+        try (Stream<Path> files = Files.list(storagePath)) {
+            files.filter(file -> ARTIFACT_NAME.matcher(file.getFileName().toString()).matches())
+                    .forEach(this::deleteQuietly);
+        }
+        log.info("Report job artifacts stored in {}", storagePath.toAbsolutePath());
+    }
+
+    /**
+     * Submit a report job, or attach to the running job for the same report
+     */
+    public ReportJobResponse submit(Long userId, ReportJobRequest request) {
+        if (request.getReportType() == ScheduledReport.ReportType.CATEGORY) {
+            throw new BadRequestException("Chưa hỗ trợ xuất báo cáo danh mục dưới dạng tác vụ");
+        }
+        if (request.getReportType() == ScheduledReport.ReportType.MONTHLY && request.getMonth() == null) {
+            throw new BadRequestException("Tháng không được để trống cho báo cáo tháng");
+        }
+
+        int month = request.getReportType() == ScheduledReport.ReportType.MONTHLY ? request.getMonth() : 0;
+        JobKey key = new JobKey(userId, request.getReportType(), request.getYear(), month, request.getFormat());
+
+        ReportJob[] created = new ReportJob[1];
+        ReportJob job = inFlight.computeIfAbsent(key, k -> {
+            created[0] = new ReportJob(UUID.randomUUID().toString(), k);
+            jobs.put(created[0].id, created[0]);
+            return created[0];
+        });
+
+        if (created[0] == null) {
+            log.debug("Report job {} already in flight for user {}", job.id, userId);
+            return toResponse(job);
+        }
+
+        try {
+            reportJobExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            inFlight.remove(key, job);
+            jobs.remove(job.id);
+            throw new BadRequestException("Hệ thống đang bận tạo báo cáo, vui lòng thử lại sau");
+        }
+
+        log.info("Submitted report job {} for user {}: {} {}/{} {}",
+                job.id, userId, key.reportType(), key.month(), key.year(), key.format());
+        return toResponse(job);
+    }
+
+    public ReportJobResponse getJob(Long userId, String jobId) {
+        return toResponse(findJob(userId, jobId));
+    }
+
+    /**
+     * Path of a completed job's artifact
+     */
+    public Path getArtifact(Long userId, String jobId) {
+        ReportJob job = findJob(userId, jobId);
+        if (job.status != JobStatus.COMPLETED || job.artifact == null || !Files.exists(job.artifact)) {
+            throw new BadRequestException("Báo cáo chưa sẵn sàng để tải xuống");
+        }
+        return job.artifact;
+    }
+
+    public String getDownloadFilename(Long userId, String jobId) {
+        JobKey key = findJob(userId, jobId).key;
+        return baseName(key) + "." + extension(key.format());
+    }
+
+    /**
+     * Remove finished jobs and their artifacts once the TTL has passed
+     */
+    @Scheduled(fixedDelayString = "${app.report-jobs.cleanup-interval-ms:300000}")
+    public void cleanupExpiredJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        int removed = 0;
+
+        for (ReportJob job : jobs.values()) {
+            if (job.expiresAt != null && job.expiresAt.isBefore(now)) {
+                jobs.remove(job.id);
+                if (job.artifact != null) {
+                    deleteQuietly(job.artifact);
+                }
+                removed++;
+            }
+        }
+
+        if (removed > 0) {
+            log.info("Removed {} expired report jobs", removed);
+        }
+    }
+
+    private void run(ReportJob job) {
+        job.status = JobStatus.RUNNING;
+        Path target = storagePath.resolve(job.id + "." + extension(job.key.format()));
+
+        try {
+            try (OutputStream out = Files.newOutputStream(target)) {
+                writeArtifact(job.key, out);
+            }
+            job.artifact = target;
+            job.sizeBytes = Files.size(target);
+            job.status = JobStatus.COMPLETED;
+            log.info("Report job {} completed ({} bytes)", job.id, job.sizeBytes);
+
+        } catch (Exception e) {
+            log.error("Report job {} failed", job.id, e);
+            deleteQuietly(target);
+            job.errorMessage = "Không thể tạo báo cáo";
+            job.status = JobStatus.FAILED;
+
+        } finally {
+            job.completedAt = LocalDateTime.now();
+            job.expiresAt = job.completedAt.plus(Duration.ofMillis(artifactTtlMs));
+            inFlight.remove(job.key, job);
+        }
+    }
+
+    private void writeArtifact(JobKey key, OutputStream out) throws IOException {
+        MonthlyReportResponse monthly = null;
+        YearlyReportResponse yearly = null;
+        if (key.reportType() == ScheduledReport.ReportType.MONTHLY) {
+            monthly = reportService.generateMonthlySummary(key.userId(), key.year(), key.month());
+        } else {
+            yearly = reportService.generateYearlySummary(key.userId(), key.year());
+        }
+
+        switch (key.format()) {
+            case PDF -> writePdf(monthly, yearly, out);
+            case CSV -> out.write(csv(monthly, yearly));
+            case BOTH -> {
+                // PDF is streamed straight into the archive entry
+                ZipOutputStream zos = new ZipOutputStream(out);
+                String baseName = baseName(key);
+
+                zos.putNextEntry(new ZipEntry(baseName + ".pdf"));
+                writePdf(monthly, yearly, zos);
+                zos.closeEntry();
+
+                zos.putNextEntry(new ZipEntry(baseName + ".csv"));
+                zos.write(csv(monthly, yearly));
+                zos.closeEntry();
+
+                zos.finish();
+            }
+        }
+    }
+
+    private void writePdf(MonthlyReportResponse monthly, YearlyReportResponse yearly, OutputStream out) {
+        if (monthly != null) {
+            pdfReportGenerator.writeMonthlyReportPDF(monthly, out);
+        } else {
+            pdfReportGenerator.writeYearlyReportPDF(yearly, out);
+        }
+    }
+
+    private byte[] csv(MonthlyReportResponse monthly, YearlyReportResponse yearly) {
+        return monthly != null
+                ? csvReportGenerator.generateMonthlyReportCSV(monthly)
+                : csvReportGenerator.generateYearlyReportCSV(yearly);
+    }
+
+    private ReportJob findJob(Long userId, String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.key.userId().equals(userId)) {
+            throw new ResourceNotFoundException("Không tìm thấy tác vụ báo cáo");
+        }
+        return job;
+    }
+
+    private ReportJobResponse toResponse(ReportJob job) {
+        JobKey key = job.key;
+        return ReportJobResponse.builder()
+                .jobId(job.id)
+                .status(job.status.name())
+                .reportType(key.reportType())
+                .format(key.format())
+                .year(key.year())
+                .month(key.month() > 0 ? key.month() : null)
+                .createdAt(job.createdAt)
+                .completedAt(job.completedAt)
+                .expiresAt(job.expiresAt)
+                .sizeBytes(job.sizeBytes)
+                .errorMessage(job.errorMessage)
+                .downloadUrl(job.status == JobStatus.COMPLETED ? "/api/reports/jobs/" + job.id + "/download" : null)
+                .build();
+    }
+
+    private static String baseName(JobKey key) {
+        return key.reportType() == ScheduledReport.ReportType.MONTHLY
+                ? "monthly_report_" + key.year() + "_" + key.month()
+                : "yearly_report_" + key.year();
+    }
+
+    private static String extension(ScheduledReport.ReportFormat format) {
+        return switch (format) {
+            case PDF -> "pdf";
+            case CSV -> "csv";
+            case BOTH -> "zip";
+        };
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete report artifact {}", path, e);
+        }
+    }
+
+    private static final class ReportJob {
+        private final String id;
+        private final JobKey key;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private volatile JobStatus status = JobStatus.PENDING;
+        private volatile Path artifact;
+        private volatile Long sizeBytes;
+        private volatile String errorMessage;
+        private volatile LocalDateTime completedAt;
+        private volatile LocalDateTime expiresAt;
+
+        private ReportJob(String id, JobKey key) {
+            this.id = id;
+            this.key = key;
+        }
+    }
+}
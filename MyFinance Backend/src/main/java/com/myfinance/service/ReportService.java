@@ -4,7 +4,6 @@ import com.myfinance.dto.response.CategoryReportResponse;
 import com.myfinance.dto.response.MonthlyReportResponse;
 import com.myfinance.dto.response.YearlyReportResponse;
 import com.myfinance.entity.Category;
-import com.myfinance.entity.Transaction;
 import com.myfinance.entity.TransactionType;
 import com.myfinance.entity.Budget;
 import com.myfinance.repository.BudgetRepository;
@@ -30,40 +29,48 @@ public class ReportService {
     private final TransactionRepository transactionRepository;
     private final CategoryRepository categoryRepository;
     private final BudgetRepository budgetRepository;
+    private final UserMonthCategoryTotalService monthCategoryTotalService;
+    private final ReportCacheService reportCacheService;
 
     /**
      * Generate monthly financial summary report
+     * Reads the per-category monthly rollup, so cost is O(categories) rather than O(transactions).
+     * Results are cached per (user, month) until a write touches that period.
      */
     public MonthlyReportResponse generateMonthlySummary(Long userId, Integer year, Integer month) {
-        log.info("Generating monthly report for user {} - {}/{}", userId, year, month);
+        return reportCacheService.getMonthly(userId, year, month,
+            () -> buildMonthlySummary(userId, year, month));
+    }
 
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = startDate.plusMonths(1).minusDays(1);
+    private MonthlyReportResponse buildMonthlySummary(Long userId, Integer year, Integer month) {
+        log.info("Generating monthly report for user {} - {}/{}", userId, year, month);
 
-        // Get transactions for the month
-        List<Transaction> transactions = transactionRepository.findByUserIdAndDateRange(userId, startDate, endDate);
+        // Aggregate rollup rows for the month
+        ReportAggregator current = new ReportAggregator()
+            .addRollups(monthCategoryTotalService.getMonthTotals(userId, year, month));
 
-        // Calculate previous month for comparison
-        LocalDate prevStartDate = startDate.minusMonths(1);
-        LocalDate prevEndDate = prevStartDate.plusMonths(1).minusDays(1);
-        List<Transaction> prevTransactions = transactionRepository.findByUserIdAndDateRange(userId, prevStartDate, prevEndDate);
+        // Previous month for comparison
+        LocalDate prevMonth = LocalDate.of(year, month, 1).minusMonths(1);
+        ReportAggregator previous = new ReportAggregator()
+            .addRollups(monthCategoryTotalService.getMonthTotals(userId, prevMonth.getYear(), prevMonth.getMonthValue()));
 
         // Calculate totals
-        BigDecimal totalIncome = calculateTotal(transactions, TransactionType.INCOME);
-        BigDecimal totalExpense = calculateTotal(transactions, TransactionType.EXPENSE);
+        BigDecimal totalIncome = current.total(TransactionType.INCOME).getSum();
+        BigDecimal totalExpense = current.total(TransactionType.EXPENSE).getSum();
         BigDecimal netSavings = totalIncome.subtract(totalExpense);
 
-        BigDecimal prevIncome = calculateTotal(prevTransactions, TransactionType.INCOME);
-        BigDecimal prevExpense = calculateTotal(prevTransactions, TransactionType.EXPENSE);
+        BigDecimal prevIncome = previous.total(TransactionType.INCOME).getSum();
+        BigDecimal prevExpense = previous.total(TransactionType.EXPENSE).getSum();
 
         // Calculate savings rate
         Double savingsRate = calculateSavingsRate(totalIncome, netSavings);
 
         // Category breakdowns with budget comparison
+        Map<Long, Budget> budgetMap = getBudgetMap(userId, year, month);
         List<MonthlyReportResponse.CategorySummary> incomeByCategory =
-            generateCategorySummaries(transactions, TransactionType.INCOME, totalIncome, userId, year, month);
+            generateCategorySummaries(current, TransactionType.INCOME, totalIncome, budgetMap);
         List<MonthlyReportResponse.CategorySummary> expenseByCategory =
-            generateCategorySummaries(transactions, TransactionType.EXPENSE, totalExpense, userId, year, month);
+            generateCategorySummaries(current, TransactionType.EXPENSE, totalExpense, budgetMap);
 
         // Top categories (limit to 5)
         List<MonthlyReportResponse.CategorySummary> topExpenses = expenseByCategory.stream()
@@ -77,23 +84,13 @@ public class ReportService {
             .collect(Collectors.toList());
 
         // Statistics
-        BigDecimal avgTransaction = transactions.isEmpty() ? BigDecimal.ZERO :
-            transactions.stream()
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(transactions.size()), 2, RoundingMode.HALF_UP);
-
-        BigDecimal largestExpense = transactions.stream()
-            .filter(t -> t.getType() == TransactionType.EXPENSE)
-            .map(Transaction::getAmount)
-            .max(BigDecimal::compareTo)
-            .orElse(BigDecimal.ZERO);
-
-        BigDecimal largestIncome = transactions.stream()
-            .filter(t -> t.getType() == TransactionType.INCOME)
-            .map(Transaction::getAmount)
-            .max(BigDecimal::compareTo)
-            .orElse(BigDecimal.ZERO);
+        long transactionCount = current.totalCount();
+        BigDecimal avgTransaction = transactionCount == 0 ? BigDecimal.ZERO :
+            current.totalAmount()
+                .divide(BigDecimal.valueOf(transactionCount), 2, RoundingMode.HALF_UP);
+
+        BigDecimal largestExpense = current.total(TransactionType.EXPENSE).getMax();
+        BigDecimal largestIncome = current.total(TransactionType.INCOME).getMax();
 
         return MonthlyReportResponse.builder()
             .year(year)
@@ -111,7 +108,7 @@ public class ReportService {
             .expenseByCategory(expenseByCategory)
             .topExpenseCategories(topExpenses)
             .topIncomeCategories(topIncome)
-            .totalTransactions((long) transactions.size())
+            .totalTransactions(transactionCount)
             .averageTransaction(avgTransaction)
             .largestExpense(largestExpense)
             .largestIncome(largestIncome)
@@ -120,32 +117,36 @@ public class ReportService {
 
     /**
      * Generate yearly financial overview report
+     * Reads the per-category monthly rollup (at most 12 x categories rows per year).
+     * Results are cached per (user, year) until a write touches that year.
      */
     public YearlyReportResponse generateYearlySummary(Long userId, Integer year) {
-        log.info("Generating yearly report for user {} - {}", userId, year);
+        return reportCacheService.getYearly(userId, year, () -> buildYearlySummary(userId, year));
+    }
 
-        LocalDate startDate = LocalDate.of(year, 1, 1);
-        LocalDate endDate = LocalDate.of(year, 12, 31);
+    private YearlyReportResponse buildYearlySummary(Long userId, Integer year) {
+        log.info("Generating yearly report for user {} - {}", userId, year);
 
-        // Get transactions for the year
-        List<Transaction> transactions = transactionRepository.findByUserIdAndDateRange(userId, startDate, endDate);
+        // Aggregate the year's rollup rows in one pass (month x category x type)
+        ReportAggregator current = new ReportAggregator()
+            .addRollups(monthCategoryTotalService.getYearTotals(userId, year));
 
         // Previous year for comparison
-        LocalDate prevStartDate = startDate.minusYears(1);
-        LocalDate prevEndDate = endDate.minusYears(1);
-        List<Transaction> prevTransactions = transactionRepository.findByUserIdAndDateRange(userId, prevStartDate, prevEndDate);
+        ReportAggregator previous = new ReportAggregator()
+            .addRollups(monthCategoryTotalService.getYearTotals(userId, year - 1));
 
         // Calculate totals
-        BigDecimal totalIncome = calculateTotal(transactions, TransactionType.INCOME);
-        BigDecimal totalExpense = calculateTotal(transactions, TransactionType.EXPENSE);
+        BigDecimal totalIncome = current.total(TransactionType.INCOME).getSum();
+        BigDecimal totalExpense = current.total(TransactionType.EXPENSE).getSum();
         BigDecimal netSavings = totalIncome.subtract(totalExpense);
 
-        BigDecimal prevIncome = calculateTotal(prevTransactions, TransactionType.INCOME);
-        BigDecimal prevExpense = calculateTotal(prevTransactions, TransactionType.EXPENSE);
+        BigDecimal prevIncome = previous.total(TransactionType.INCOME).getSum();
+        BigDecimal prevExpense = previous.total(TransactionType.EXPENSE).getSum();
 
         Double savingsRate = calculateSavingsRate(totalIncome, netSavings);
 
         // Generate monthly trends
+
         List<YearlyReportResponse.MonthlyTrend> monthlyTrends = new ArrayList<>();
         YearlyReportResponse.MonthlyTrend bestSavings = null;
         YearlyReportResponse.MonthlyTrend worstSavings = null;
@@ -153,15 +154,8 @@ public class ReportService {
         YearlyReportResponse.MonthlyTrend highestExpense = null;
 
         for (int month = 1; month <= 12; month++) {
-            LocalDate monthStart = LocalDate.of(year, month, 1);
-            LocalDate monthEnd = monthStart.plusMonths(1).minusDays(1);
-
-            List<Transaction> monthTransactions = transactions.stream()
-                .filter(t -> !t.getTransactionDate().isBefore(monthStart) && !t.getTransactionDate().isAfter(monthEnd))
-                .collect(Collectors.toList());
-
-            BigDecimal monthIncome = calculateTotal(monthTransactions, TransactionType.INCOME);
-            BigDecimal monthExpense = calculateTotal(monthTransactions, TransactionType.EXPENSE);
+            BigDecimal monthIncome = current.monthTotal(year, month, TransactionType.INCOME).getSum();
+            BigDecimal monthExpense = current.monthTotal(year, month, TransactionType.EXPENSE).getSum();
             BigDecimal monthSavings = monthIncome.subtract(monthExpense);
             Double monthSavingsRate = calculateSavingsRate(monthIncome, monthSavings);
 
@@ -191,11 +185,12 @@ public class ReportService {
             }
         }
 
-        // Category totals for the year (use current month for budget comparison as yearly budgets aren't standard)
+        // Category totals for the year (use December budgets for comparison as yearly budgets aren't standard)
+        Map<Long, Budget> budgetMap = getBudgetMap(userId, year, 12);
         List<MonthlyReportResponse.CategorySummary> yearlyIncomeByCategory =
-            generateCategorySummaries(transactions, TransactionType.INCOME, totalIncome, userId, year, 12);
+            generateCategorySummaries(current, TransactionType.INCOME, totalIncome, budgetMap);
         List<MonthlyReportResponse.CategorySummary> yearlyExpenseByCategory =
-            generateCategorySummaries(transactions, TransactionType.EXPENSE, totalExpense, userId, year, 12);
+            generateCategorySummaries(current, TransactionType.EXPENSE, totalExpense, budgetMap);
 
         // Top categories (limit to 5)
         List<MonthlyReportResponse.CategorySummary> topExpenses = yearlyExpenseByCategory.stream()
@@ -231,7 +226,7 @@ public class ReportService {
             .yearlyExpenseByCategory(yearlyExpenseByCategory)
             .topExpenseCategories(topExpenses)
             .topIncomeCategories(topIncome)
-            .totalTransactions((long) transactions.size())
+            .totalTransactions(current.totalCount())
             .averageMonthlyIncome(avgMonthlyIncome)
             .averageMonthlyExpense(avgMonthlyExpense)
             .build();
@@ -248,29 +243,23 @@ public class ReportService {
         Category category = categoryRepository.findByIdAndUserId(categoryId, userId)
             .orElseThrow(() -> new RuntimeException("Không tìm thấy danh mục hoặc bạn không có quyền truy cập"));
 
-        // Get transactions for the category
-        List<Transaction> transactions = transactionRepository.findByUserIdAndCategoryIdOrderByTransactionDateDesc(userId, categoryId)
-            .stream()
-            .filter(t -> !t.getTransactionDate().isBefore(startDate) && !t.getTransactionDate().isAfter(endDate))
-            .collect(Collectors.toList());
+        // Per-month aggregates for the requested range only, computed by the database
+        ReportAggregator aggregator = new ReportAggregator();
+        for (TransactionRepository.MonthTotal row :
+                transactionRepository.sumByMonthForCategory(userId, categoryId, startDate, endDate)) {
+            aggregator.addMonthBucket(row.getPeriodYear(), row.getPeriodMonth(), category, category.getType(),
+                row.getTotal(), row.getCount(), row.getMinAmount(), row.getMaxAmount());
+        }
+        ReportAggregator.Accumulator summary = aggregator.total(category.getType());
 
         // Calculate summary statistics
-        BigDecimal totalAmount = transactions.stream()
-            .map(Transaction::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalAmount = summary.getSum();
 
-        BigDecimal avgTransaction = transactions.isEmpty() ? BigDecimal.ZERO :
-            totalAmount.divide(BigDecimal.valueOf(transactions.size()), 2, RoundingMode.HALF_UP);
+        BigDecimal avgTransaction = summary.isEmpty() ? BigDecimal.ZERO :
+            totalAmount.divide(BigDecimal.valueOf(summary.getCount()), 2, RoundingMode.HALF_UP);
 
-        BigDecimal minTransaction = transactions.stream()
-            .map(Transaction::getAmount)
-            .min(BigDecimal::compareTo)
-            .orElse(BigDecimal.ZERO);
-
-        BigDecimal maxTransaction = transactions.stream()
-            .map(Transaction::getAmount)
-            .max(BigDecimal::compareTo)
-            .orElse(BigDecimal.ZERO);
+        BigDecimal minTransaction = summary.getMin();
+        BigDecimal maxTransaction = summary.getMax();
 
         // Generate period summaries (monthly breakdown)
         List<CategoryReportResponse.PeriodSummary> periodSummaries = new ArrayList<>();
@@ -282,24 +271,15 @@ public class ReportService {
                 periodEnd = endDate;
             }
 
-            // Make variables effectively final for lambda
-            final LocalDate finalCurrentPeriod = currentPeriod;
-            final LocalDate finalPeriodEnd = periodEnd;
-
-            List<Transaction> periodTransactions = transactions.stream()
-                .filter(t -> !t.getTransactionDate().isBefore(finalCurrentPeriod) && !t.getTransactionDate().isAfter(finalPeriodEnd))
-                .collect(Collectors.toList());
-
-            BigDecimal periodAmount = periodTransactions.stream()
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            ReportAggregator.Accumulator period = aggregator.monthTotal(
+                currentPeriod.getYear(), currentPeriod.getMonthValue(), category.getType());
 
             periodSummaries.add(CategoryReportResponse.PeriodSummary.builder()
-                .periodLabel(finalCurrentPeriod.getYear() + "-" + String.format("%02d", finalCurrentPeriod.getMonthValue()))
-                .periodStart(finalCurrentPeriod)
-                .periodEnd(finalPeriodEnd)
-                .amount(periodAmount)
-                .transactionCount((long) periodTransactions.size())
+                .periodLabel(currentPeriod.getYear() + "-" + String.format("%02d", currentPeriod.getMonthValue()))
+                .periodStart(currentPeriod)
+                .periodEnd(periodEnd)
+                .amount(period.getSum())
+                .transactionCount(period.getCount())
                 .build());
 
             currentPeriod = currentPeriod.plusMonths(1);
@@ -314,7 +294,7 @@ public class ReportService {
             .startDate(startDate)
             .endDate(endDate)
             .totalAmount(totalAmount)
-            .transactionCount((long) transactions.size())
+            .transactionCount(summary.getCount())
             .averageTransaction(avgTransaction)
             .minTransaction(minTransaction)
             .maxTransaction(maxTransaction)
@@ -324,11 +304,11 @@ public class ReportService {
 
     // Helper methods
 
-    private BigDecimal calculateTotal(List<Transaction> transactions, TransactionType type) {
-        return transactions.stream()
-            .filter(t -> t.getType() == type)
-            .map(Transaction::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private Map<Long, Budget> getBudgetMap(Long userId, Integer year, Integer month) {
+        return budgetRepository
+            .findByUserIdAndBudgetYearAndBudgetMonthAndIsActiveTrue(userId, year, month)
+            .stream()
+            .collect(Collectors.toMap(budget -> budget.getCategory().getId(), budget -> budget));
     }
 
     private Double calculateSavingsRate(BigDecimal income, BigDecimal savings) {
@@ -351,27 +331,13 @@ public class ReportService {
     }
 
     private List<MonthlyReportResponse.CategorySummary> generateCategorySummaries(
-            List<Transaction> transactions, TransactionType type, BigDecimal total,
-            Long userId, Integer year, Integer month) {
+            ReportAggregator aggregator, TransactionType type, BigDecimal total,
+            Map<Long, Budget> budgetMap) {
 
-        Map<Category, List<Transaction>> groupedByCategory = transactions.stream()
-            .filter(t -> t.getType() == type)
-            .collect(Collectors.groupingBy(Transaction::getCategory));
-
-        // Get budgets for this period
-        Map<Long, Budget> budgetMap = budgetRepository
-            .findByUserIdAndBudgetYearAndBudgetMonthAndIsActiveTrue(userId, year, month)
-            .stream()
-            .collect(Collectors.toMap(budget -> budget.getCategory().getId(), budget -> budget));
-
-        return groupedByCategory.entrySet().stream()
+        return aggregator.byCategory(type).entrySet().stream()
             .map(entry -> {
                 Category category = entry.getKey();
-                List<Transaction> categoryTransactions = entry.getValue();
-
-                BigDecimal amount = categoryTransactions.stream()
-                    .map(Transaction::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+                BigDecimal amount = entry.getValue().getSum();
 
                 Double percentage = total.compareTo(BigDecimal.ZERO) == 0 ? 0.0 :
                     amount.divide(total, 4, RoundingMode.HALF_UP)
@@ -397,7 +363,7 @@ public class ReportService {
                     .categoryColor(category.getColor())
                     .categoryIcon(category.getIcon())
                     .amount(amount)
-                    .transactionCount((long) categoryTransactions.size())
+                    .transactionCount(entry.getValue().getCount())
                     .percentage(percentage)
                     .budgetAmount(budgetAmount)
                     .budgetDifference(budgetDifference)
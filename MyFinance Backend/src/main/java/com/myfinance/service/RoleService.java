@@ -5,23 +5,36 @@ import com.myfinance.entity.RoleName;
 import com.myfinance.entity.UserRole;
 import com.myfinance.repository.RoleRepository;
 import com.myfinance.repository.UserRoleRepository;
-import lombok.RequiredArgsConstructor;
+import com.myfinance.util.TtlCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RoleService {
 
     private final RoleRepository roleRepository;
     private final UserRoleRepository userRoleRepository;
 
+    // Active role names per user, checked on every admin request
+    private final TtlCache<Long, Set<RoleName>> roleCache;
+
+    public RoleService(RoleRepository roleRepository, UserRoleRepository userRoleRepository,
+                       @Value("${app.security.role-cache.max-size:10000}") int cacheMaxSize,
+                       @Value("${app.security.role-cache.ttl-ms:60000}") long cacheTtlMs) {
+        this.roleRepository = roleRepository;
+        this.userRoleRepository = userRoleRepository;
+        this.roleCache = new TtlCache<>(cacheMaxSize, cacheTtlMs);
+    }
+
     /**
      * Get all active roles
      */
@@ -55,16 +68,19 @@ public class RoleService {
 
     /**
      * Check if user has specific role
+     * Served from a short-lived cache; role changes on this instance take effect immediately,
+     * on other instances within the TTL.
      */
     public boolean hasRole(Long userId, RoleName roleName) {
-        return userRoleRepository.existsByUserIdAndRoleNameAndIsActiveTrue(userId, roleName);
+        return getCachedRoles(userId).contains(roleName);
     }
 
     /**
      * Check if user is admin
      */
     public boolean isAdmin(Long userId) {
-        return hasRole(userId, RoleName.ADMIN) || hasRole(userId, RoleName.SUPER_ADMIN);
+        Set<RoleName> roles = getCachedRoles(userId);
+        return roles.contains(RoleName.ADMIN) || roles.contains(RoleName.SUPER_ADMIN);
     }
 
     /**
@@ -74,6 +90,21 @@ public class RoleService {
         return hasRole(userId, RoleName.SUPER_ADMIN);
     }
 
+    private Set<RoleName> getCachedRoles(Long userId) {
+        return roleCache.get(userId, id -> {
+            Set<RoleName> roles = EnumSet.noneOf(RoleName.class);
+            roles.addAll(userRoleRepository.findActiveRoleNamesByUserId(id));
+            return Set.copyOf(roles);
+        });
+    }
+
+    /**
+     * Drop the user's cached roles once the surrounding transaction commits, or immediately outside one
+     */
+    public void evictUserRoles(Long userId) {
+        roleCache.evictAfterCommit(userId);
+    }
+
     /**
      * Assign role to user
      */
@@ -98,7 +129,9 @@ public class RoleService {
         userRole.setAssignedByUserId(assignedByUserId);
         userRole.setIsActive(true);
 
-        return userRoleRepository.save(userRole);
+        UserRole saved = userRoleRepository.save(userRole);
+        evictUserRoles(userId);
+        return saved;
     }
 
     /**
@@ -113,6 +146,7 @@ public class RoleService {
             UserRole ur = userRole.get();
             ur.setIsActive(false);
             userRoleRepository.save(ur);
+            evictUserRoles(userId);
         }
     }
 
@@ -5,11 +5,16 @@ import com.myfinance.dto.response.MonthlyReportResponse;
 import com.myfinance.dto.response.YearlyReportResponse;
 import com.myfinance.entity.ScheduledReport;
 import com.myfinance.entity.User;
+import com.myfinance.exception.BadRequestException;
 import com.myfinance.exception.ResourceNotFoundException;
 import com.myfinance.repository.ScheduledReportRepository;
 import com.myfinance.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,8 +22,14 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -33,6 +44,38 @@ public class ScheduledReportService {
     private final EmailService emailService;
     private final PDFReportGenerator pdfReportGenerator;
     private final CSVReportGenerator csvReportGenerator;
+    private final ScheduledReportTimer scheduledReportTimer;
+
+    @Qualifier("scheduledReportExecutor")
+    private final TaskExecutor scheduledReportExecutor;
+
+    @Value("${app.scheduled-reports.claim-batch-size:500}")
+    private int claimBatchSize;
+
+    @Value("${app.scheduled-reports.claim-ttl-ms:1800000}")
+    private long claimTtlMs;
+
+    @Value("${app.scheduled-reports.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.scheduled-reports.retry-base-delay-ms:60000}")
+    private long retryBaseDelayMs;
+
+    @Value("${app.scheduled-reports.retry-max-delay-ms:3600000}")
+    private long retryMaxDelayMs;
+
+    // Reports claimed by this instance and not finished yet
+    private final AtomicInteger runningReports = new AtomicInteger();
+
+    // Execution metrics
+    private final AtomicLong completedRuns = new AtomicLong();
+    private final AtomicLong failedRuns = new AtomicLong();
+    private final AtomicLong deadLetteredRuns = new AtomicLong();
+    private final AtomicLong totalRunMillis = new AtomicLong();
+    private final AtomicLong totalLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private volatile int lastDispatchCount;
+    private volatile LocalDateTime lastDispatchAt;
 
     /**
      * Create a new scheduled report
@@ -63,7 +106,9 @@ public class ScheduledReportService {
                 .runCount(0)
                 .build();
 
-        return scheduledReportRepository.save(scheduledReport);
+        ScheduledReport saved = scheduledReportRepository.save(scheduledReport);
+        scheduledReportTimer.schedule(saved);
+        return saved;
     }
 
     /**
@@ -122,7 +167,9 @@ public class ScheduledReportService {
             report.setNextRun(report.calculateNextRun());
         }
 
-        return scheduledReportRepository.save(report);
+        ScheduledReport saved = scheduledReportRepository.save(report);
+        scheduledReportTimer.schedule(saved);
+        return saved;
     }
 
     /**
@@ -132,36 +179,170 @@ public class ScheduledReportService {
     public void deleteScheduledReport(Long reportId, Long userId) {
         ScheduledReport report = getScheduledReport(reportId, userId);
         scheduledReportRepository.delete(report);
+        scheduledReportTimer.remove(reportId);
         log.info("Deleted scheduled report {} for user {}", reportId, userId);
     }
 
     /**
-     * Execute all due scheduled reports
-     * Runs every hour
+     * Dead-lettered reports of a user
+     */
+    public List<ScheduledReport> getFailedScheduledReports(Long userId) {
+        return scheduledReportRepository.findByUserIdAndDeadLetteredAtIsNotNullOrderByDeadLetteredAtDesc(userId);
+    }
+
+    /**
+     * Put a dead-lettered report back on the schedule with a fresh set of attempts, running it right away
      */
-    @Scheduled(cron = "0 0 * * * *") // Every hour at minute 0
     @Transactional
-    public void executeScheduledReports() {
-        log.info("Executing scheduled reports check...");
+    public ScheduledReport requeueScheduledReport(Long reportId, Long userId) {
+        ScheduledReport report = getScheduledReport(reportId, userId);
+        if (report.getDeadLetteredAt() == null) {
+            throw new BadRequestException("Báo cáo định kỳ không ở trạng thái lỗi");
+        }
 
+        report.setDeadLetteredAt(null);
+        report.setFailureCount(0);
+        report.setLastError(null);
+        report.setNextRun(LocalDateTime.now());
+
+        ScheduledReport saved = scheduledReportRepository.save(report);
+        scheduledReportTimer.schedule(saved);
+        log.info("Requeued scheduled report {} for user {}", reportId, userId);
+        return saved;
+    }
+
+    /**
+     * Claim the reports whose (jittered) run time has passed and dispatch them to the worker pool
+     * Polls the in-memory timer every few seconds, so reports fire at their configured minute; returns as soon
+     * as the reports are queued so other scheduled jobs are not held up.
+     * Claims make this safe with several backend instances: each due report is executed by exactly one of them.
+     */
+    @Scheduled(fixedDelayString = "${app.scheduled-reports.tick-ms:10000}")
+    public void executeScheduledReports() {
         LocalDateTime now = LocalDateTime.now();
-        List<ScheduledReport> dueReports = scheduledReportRepository.findDueReports(now);
+        List<Long> dueIds = scheduledReportTimer.pollDue(now, claimBatchSize);
+        if (dueIds.isEmpty()) {
+            return;
+        }
+
+        String claimToken = UUID.randomUUID().toString();
+        int claimed = scheduledReportRepository.claimReports(
+                dueIds, now, now.plus(Duration.ofMillis(claimTtlMs)), claimToken);
+        List<ScheduledReport> dueReports = claimed == 0
+                ? List.of()
+                : scheduledReportRepository.findByClaimTokenOrderByNextRun(claimToken);
 
-        log.info("Found {} due reports to execute", dueReports.size());
+        // Unclaimed ids were taken by another instance or changed since the last resync; the resync re-adds them
+        log.info("Claimed {} of {} due reports to execute", dueReports.size(), dueIds.size());
 
+        int dispatched = 0;
         for (ScheduledReport scheduledReport : dueReports) {
+            runningReports.incrementAndGet();
             try {
-                executeReport(scheduledReport);
-            } catch (Exception e) {
-                log.error("Failed to execute scheduled report {}: {}", scheduledReport.getId(), e.getMessage(), e);
+                scheduledReportExecutor.execute(() -> runDueReport(scheduledReport, claimToken));
+                dispatched++;
+            } catch (TaskRejectedException e) {
+                runningReports.decrementAndGet();
+                log.warn("Scheduled report queue is full; releasing {} claimed reports for the next run",
+                        dueReports.size() - dispatched);
+                dueReports.subList(dispatched, dueReports.size()).forEach(report -> {
+                    scheduledReportRepository.releaseClaim(report.getId(), claimToken);
+                    scheduledReportTimer.schedule(report);
+                });
+                break;
             }
         }
+
+        lastDispatchCount = dispatched;
+        lastDispatchAt = now;
+    }
+
+    /**
+     * Worker body for one claimed report: failures are isolated to that report and the claim is always released
+     */
+    private void runDueReport(ScheduledReport scheduledReport, String claimToken) {
+        long startedAt = System.currentTimeMillis();
+
+        if (scheduledReport.getNextRun() != null) {
+            long lag = Math.max(0, Duration.between(scheduledReport.getNextRun(), LocalDateTime.now()).toMillis());
+            totalLagMillis.addAndGet(lag);
+            maxLagMillis.accumulateAndGet(lag, Math::max);
+        }
+
+        try {
+            executeReport(scheduledReport);
+            completedRuns.incrementAndGet();
+        } catch (Exception e) {
+            failedRuns.incrementAndGet();
+            log.error("Failed to execute scheduled report {}: {}", scheduledReport.getId(), e.getMessage(), e);
+            recordFailure(scheduledReport, e);
+        } finally {
+            totalRunMillis.addAndGet(System.currentTimeMillis() - startedAt);
+            runningReports.decrementAndGet();
+            scheduledReportRepository.releaseClaim(scheduledReport.getId(), claimToken);
+        }
+    }
+
+    /**
+     * Schedule the next attempt with exponential backoff, or dead-letter the report once attempts are exhausted
+     */
+    private void recordFailure(ScheduledReport scheduledReport, Exception e) {
+        int attempts = (scheduledReport.getFailureCount() != null ? scheduledReport.getFailureCount() : 0) + 1;
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+
+        try {
+            if (attempts >= maxAttempts) {
+                scheduledReportRepository.recordDeadLetter(scheduledReport.getId(), attempts, error, LocalDateTime.now());
+                scheduledReportTimer.remove(scheduledReport.getId());
+                deadLetteredRuns.incrementAndGet();
+                log.warn("Scheduled report {} dead-lettered after {} failed attempts", scheduledReport.getId(), attempts);
+                return;
+            }
+
+            long delay = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(attempts - 1, 20));
+            LocalDateTime retryAt = LocalDateTime.now().plus(Duration.ofMillis(delay));
+            scheduledReportRepository.recordFailure(scheduledReport.getId(), attempts, error, retryAt);
+
+            scheduledReport.setFailureCount(attempts);
+            scheduledReport.setNextRun(retryAt);
+            scheduledReportTimer.schedule(scheduledReport);
+            log.info("Scheduled report {} will be retried at {} (attempt {}/{})",
+                    scheduledReport.getId(), retryAt, attempts + 1, maxAttempts);
+        } catch (Exception ex) {
+            // The next resync retries the report at its unchanged next run
+            log.error("Could not record failure of scheduled report {}", scheduledReport.getId(), ex);
+        }
+    }
+
+    /**
+     * Throughput and lag of scheduled report execution since startup
+     */
+    public Map<String, Object> getExecutionStats() {
+        long completed = completedRuns.get();
+        long failed = failedRuns.get();
+        long runs = completed + failed;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("completedRuns", completed);
+        stats.put("failedRuns", failed);
+        stats.put("deadLetteredRuns", deadLetteredRuns.get());
+        stats.put("running", runningReports.get());
+        stats.put("averageRunMillis", runs == 0 ? 0 : totalRunMillis.get() / runs);
+        stats.put("averageLagMillis", runs == 0 ? 0 : totalLagMillis.get() / runs);
+        stats.put("maxLagMillis", maxLagMillis.get());
+        stats.put("queuedReports", scheduledReportTimer.size());
+        stats.put("lastDispatchCount", lastDispatchCount);
+        stats.put("lastDispatchAt", lastDispatchAt);
+        return stats;
     }
 
     /**
      * Execute a single scheduled report
+     * Rendering and email run outside any DB transaction; only the run bookkeeping is written, in its own short transaction
      */
-    @Transactional
     public void executeReport(ScheduledReport scheduledReport) {
         log.info("Executing scheduled report {}: type={}, user={}",
                 scheduledReport.getId(), scheduledReport.getReportType(), scheduledReport.getUserId());
@@ -172,9 +353,13 @@ public class ScheduledReportService {
         try {
             // Generate report based on type
             byte[] reportData = generateReportData(scheduledReport, user);
+            if (reportData == null) {
+                // Counted as a failed attempt so the run is retried
+                throw new IllegalStateException("Không thể tạo dữ liệu báo cáo");
+            }
 
             // Send email if enabled
-            if (scheduledReport.getEmailDelivery() && reportData != null) {
+            if (scheduledReport.getEmailDelivery()) {
                 String fileName = String.format("%s_report_%s.%s",
                         scheduledReport.getReportType().name().toLowerCase(),
                         LocalDate.now(),
@@ -190,11 +375,15 @@ public class ScheduledReportService {
                 );
             }
 
-            // Update schedule
+            // Update schedule (kept in sync in memory for callers that save the entity afterwards)
             scheduledReport.setLastRun(LocalDateTime.now());
             scheduledReport.setNextRun(scheduledReport.calculateNextRun());
-            scheduledReport.setRunCount(scheduledReport.getRunCount() + 1);
-            scheduledReportRepository.save(scheduledReport);
+            scheduledReportRepository.recordRun(scheduledReport.getId(), scheduledReport.getLastRun(), scheduledReport.getNextRun());
+            scheduledReportTimer.schedule(scheduledReport);
+            scheduledReport.setRunCount((scheduledReport.getRunCount() != null ? scheduledReport.getRunCount() : 0) + 1);
+            scheduledReport.setFailureCount(0);
+            scheduledReport.setLastError(null);
+            scheduledReport.setDeadLetteredAt(null);
 
             log.info("Successfully executed scheduled report {}", scheduledReport.getId());
         } catch (Exception e) {
@@ -207,7 +396,6 @@ public class ScheduledReportService {
      * Execute a scheduled report manually (triggered by "Send Now" button)
      * Updates lastManualSend timestamp for rate limiting
      */
-    @Transactional
     public void executeReportManually(ScheduledReport scheduledReport) {
         log.info("Manually executing scheduled report {}: type={}, user={}",
                 scheduledReport.getId(), scheduledReport.getReportType(), scheduledReport.getUserId());
@@ -0,0 +1,152 @@
+package com.myfinance.service;
+
+import com.myfinance.entity.ScheduledReport;
+import com.myfinance.repository.ScheduledReportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * In-memory queue of upcoming scheduled report runs, ordered by fire time.
+ * Each report fires at its nextRun plus a fixed per-report jitter, so reports sharing a minute are spread out.
+ * Local changes are applied incrementally; a periodic resync picks up changes made by other instances.
+ * The queue only decides when to try a report: the database claim still decides who runs it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduledReportTimer {
+
+    private record Slot(long reportId, LocalDateTime fireAt) {
+    }
+
+    private final ScheduledReportRepository scheduledReportRepository;
+
+    @Value("${app.scheduled-reports.jitter-seconds:60}")
+    private int jitterSeconds;
+
+    // Guarded by "this"; superseded slots stay in the queue and are skipped when polled
+    private final PriorityQueue<Slot> queue = new PriorityQueue<>(
+            (a, b) -> a.fireAt().compareTo(b.fireAt()));
+    private final Map<Long, Slot> current = new HashMap<>();
+
+    // Ids scheduled, removed or polled locally while a resync is loading; null outside a resync
+    private Set<Long> changedDuringLoad;
+
+    /**
+     * Reload the whole schedule from the database (at startup and periodically).
+     * Reports changed locally while the load ran keep their local state, which is newer than the loaded row.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.scheduled-reports.resync-interval-ms:300000}")
+    public void resync() {
+        synchronized (this) {
+            changedDuringLoad = new HashSet<>();
+        }
+
+        try {
+            List<ScheduledReportRepository.ScheduleSlot> slots = scheduledReportRepository.findActiveSchedule();
+
+            synchronized (this) {
+                List<Slot> local = new ArrayList<>();
+                for (Long reportId : changedDuringLoad) {
+                    Slot slot = current.get(reportId);
+                    if (slot != null) {
+                        local.add(slot);
+                    }
+                }
+
+                queue.clear();
+                current.clear();
+                for (ScheduledReportRepository.ScheduleSlot slot : slots) {
+                    if (!changedDuringLoad.contains(slot.getId())) {
+                        add(slot.getId(), slot.getNextRun());
+                    }
+                }
+                for (Slot slot : local) {
+                    current.put(slot.reportId(), slot);
+                    queue.add(slot);
+                }
+            }
+            log.debug("Loaded {} scheduled report runs", slots.size());
+        } finally {
+            synchronized (this) {
+                changedDuringLoad = null;
+            }
+        }
+    }
+
+    /**
+     * Add or move a report after it was created, edited or run
+     */
+    public void schedule(ScheduledReport report) {
+        if (report.getId() == null) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(report.getIsActive()) || report.getNextRun() == null) {
+            remove(report.getId());
+            return;
+        }
+        synchronized (this) {
+            markChanged(report.getId());
+            add(report.getId(), report.getNextRun());
+        }
+    }
+
+    public synchronized void remove(Long reportId) {
+        markChanged(reportId);
+        current.remove(reportId);
+    }
+
+    /**
+     * Take up to maxReports report ids whose fire time has passed
+     */
+    public synchronized List<Long> pollDue(LocalDateTime now, int maxReports) {
+        List<Long> due = new ArrayList<>();
+        while (due.size() < maxReports && !queue.isEmpty() && !queue.peek().fireAt().isAfter(now)) {
+            Slot slot = queue.poll();
+            if (current.remove(slot.reportId(), slot)) {
+                markChanged(slot.reportId());
+                due.add(slot.reportId());
+            }
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return current.size();
+    }
+
+    private void markChanged(long reportId) {
+        if (changedDuringLoad != null) {
+            changedDuringLoad.add(reportId);
+        }
+    }
+
+    private void add(long reportId, LocalDateTime nextRun) {
+        Slot slot = new Slot(reportId, nextRun.plusSeconds(jitter(reportId)));
+        current.put(reportId, slot);
+        queue.add(slot);
+
+        // Rebuild when superseded slots dominate the queue
+        if (queue.size() > 2 * current.size() + 64) {
+            queue.clear();
+            queue.addAll(current.values());
+        }
+    }
+
+    // Stable per report, so a report fires at the same offset every period
+    private long jitter(long reportId) {
+        return jitterSeconds <= 0 ? 0 : Math.floorMod(Long.hashCode(reportId * 0x9E3779B97F4A7C15L), jitterSeconds);
+    }
+}
@@ -2,29 +2,101 @@ package com.myfinance.service;
 
 import com.myfinance.entity.SystemConfig;
 import com.myfinance.repository.SystemConfigRepository;
+import com.myfinance.repository.SystemConfigVersionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SystemConfigService {
 
+    private record ConfigSnapshot(Map<String, String> values, long version) {
+    }
+
     private final SystemConfigRepository systemConfigRepository;
+    private final SystemConfigVersionRepository systemConfigVersionRepository;
     private final AuditService auditService;
 
+    // Immutable copy of all config values, read on every request by MaintenanceFilter; loaded on first use
+    private final AtomicReference<ConfigSnapshot> snapshot = new AtomicReference<>();
+
     /**
      * Get configuration value by key
+     * Served from the in-memory snapshot; writes on this instance apply after commit,
+     * writes on other instances within the poll interval.
      */
     public Optional<String> getConfigValue(String key) {
-        return systemConfigRepository.findValueByKey(key);
+        ConfigSnapshot current = snapshot.get();
+        if (current == null) {
+            current = refreshSnapshot();
+        }
+        return Optional.ofNullable(current.values().get(key));
+    }
+
+    /**
+     * Reload the snapshot when another instance changed a config
+     */
+    @Scheduled(fixedDelayString = "${app.system-config.poll-interval-ms:5000}")
+    public void pollConfigVersion() {
+        ConfigSnapshot current = snapshot.get();
+        if (current == null) {
+            return;
+        }
+
+        long version = systemConfigVersionRepository.findCurrentVersion().orElse(0L);
+        if (version != current.version()) {
+            refreshSnapshot();
+            log.info("System config snapshot reloaded at version {}", version);
+        }
+    }
+
+    private ConfigSnapshot refreshSnapshot() {
+        // Read the version first: a write committing during the load bumps it again and triggers another reload
+        long version = systemConfigVersionRepository.findCurrentVersion().orElse(0L);
+
+        Map<String, String> values = new HashMap<>();
+        for (SystemConfig config : systemConfigRepository.findAll()) {
+            if (config.getConfigValue() != null) {
+                values.put(config.getConfigKey(), config.getConfigValue());
+            }
+        }
+
+        // Never replace a snapshot with one loaded at an older version
+        ConfigSnapshot loaded = new ConfigSnapshot(Map.copyOf(values), version);
+        return snapshot.accumulateAndGet(loaded,
+                (current, next) -> current != null && current.version() > next.version() ? current : next);
+    }
+
+    /**
+     * Bump the shared version with the write and refresh this instance's snapshot once it commits
+     */
+    private void markChanged() {
+        systemConfigVersionRepository.incrementVersion();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshSnapshot();
+                }
+            });
+        } else {
+            refreshSnapshot();
+        }
     }
 
     /**
@@ -83,10 +155,9 @@ public class SystemConfigService {
                          SystemConfig.ConfigType type, boolean isPublic,
                          Long updatedByUserId, String ipAddress) {
 
-        String oldValue = getConfigValue(key).orElse(null);
-
         SystemConfig config = systemConfigRepository.findByConfigKey(key)
                 .orElse(new SystemConfig());
+        String oldValue = config.getConfigValue();
 
         config.setConfigKey(key);
         config.setConfigValue(value);
@@ -96,6 +167,7 @@ public class SystemConfigService {
         config.setUpdatedByUserId(updatedByUserId);
 
         systemConfigRepository.save(config);
+        markChanged();
 
         // Log the change
         auditService.logSystemConfig(
@@ -128,6 +200,7 @@ public class SystemConfigService {
         if (config.isPresent()) {
             String oldValue = config.get().getConfigValue();
             systemConfigRepository.deleteById(key);
+            markChanged();
 
             auditService.logSystemConfig("DELETE_CONFIG", key, oldValue, null, deletedByUserId, ipAddress);
             log.info("System config deleted: {} by user {}", key, deletedByUserId);
@@ -181,6 +254,8 @@ public class SystemConfigService {
      */
     @Transactional
     public void initializeDefaultConfigs() {
+        systemConfigVersionRepository.ensureExists();
+
         // System settings
         setDefaultConfig("MAINTENANCE_MODE", "false", "Chế độ bảo trì hệ thống",
                         SystemConfig.ConfigType.MAINTENANCE, false);
@@ -213,6 +288,7 @@ public class SystemConfigService {
             config.setConfigType(type);
             config.setIsPublic(isPublic);
             systemConfigRepository.save(config);
+            markChanged();
         }
     }
 
@@ -258,7 +334,9 @@ public class SystemConfigService {
             config.setIsPublic(isPublic);
         }
 
-        return systemConfigRepository.save(config);
+        SystemConfig saved = systemConfigRepository.save(config);
+        markChanged();
+        return saved;
     }
 
     // REMOVED: deleteConfigByKey() method - prevents accidental deletion of critical configs
@@ -276,6 +354,7 @@ public class SystemConfigService {
         config.setIsPublic(false);
 
         systemConfigRepository.save(config);
+        markChanged();
     }
 
     public List<SystemConfig> getAllFeatureFlags() {
@@ -0,0 +1,168 @@
+package com.myfinance.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myfinance.entity.Transaction;
+import com.myfinance.entity.TransactionType;
+import com.myfinance.exception.BadRequestException;
+import com.myfinance.repository.TransactionRepository;
+import com.opencsv.CSVWriter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's transactions as CSV or NDJSON.
+ * Rows are read from a database cursor and written one at a time, so memory stays flat
+ * regardless of how many transactions are exported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportService {
+
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static ExportFormat from(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Định dạng xuất không hợp lệ. Sử dụng: csv, ndjson");
+            }
+        }
+    }
+
+    private static final String[] CSV_HEADER = {"ID", "Ngày", "Loại", "Danh Mục", "Số Tiền", "Mô Tả"};
+
+    // Rows written between explicit flushes to the client
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write the filtered transactions to the stream (the stream is left open).
+     * Must be called through the Spring proxy so the cursor runs inside a read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    public long exportTransactions(Long userId, TransactionType type, Long categoryId,
+                                   LocalDate startDate, LocalDate endDate, String searchTerm,
+                                   ExportFormat format, OutputStream out) {
+        String search = (searchTerm == null || searchTerm.isBlank()) ? null : searchTerm.trim();
+
+        try (Stream<Transaction> transactions = transactionRepository.streamTransactionsForExport(
+                userId, type, categoryId, startDate, endDate, search)) {
+
+            long rows = format == ExportFormat.NDJSON
+                    ? writeNdjson(transactions.iterator(), out)
+                    : writeCsv(transactions.iterator(), out);
+
+            log.info("Exported {} transactions for user {} as {}", rows, userId, format);
+            return rows;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long writeCsv(Iterator<Transaction> transactions, OutputStream out) throws IOException {
+        // Add BOM for Excel compatibility with Vietnamese characters
+        out.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+
+        OutputStreamWriter osw = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        CSVWriter writer = new CSVWriter(osw);
+
+        writer.writeNext(CSV_HEADER);
+        writer.flush(); // First byte goes out before the first row is fetched
+
+        long rows = 0;
+        while (transactions.hasNext()) {
+            Transaction transaction = transactions.next();
+            writer.writeNext(new String[]{
+                String.valueOf(transaction.getId()),
+                transaction.getTransactionDate().toString(),
+                transaction.getType() == TransactionType.INCOME ? "Thu nhập" : "Chi tiêu",
+                transaction.getCategory().getName(),
+                transaction.getAmount().toPlainString(),
+                transaction.getDescription() != null ? transaction.getDescription() : ""
+            });
+            release(transaction);
+
+            if (++rows % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+
+        writer.flush();
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<Transaction> transactions, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        long rows = 0;
+        while (transactions.hasNext()) {
+            Transaction transaction = transactions.next();
+
+            generator.writeStartObject();
+            generator.writeNumberField("id", transaction.getId());
+            generator.writeStringField("transactionDate", transaction.getTransactionDate().toString());
+            generator.writeStringField("type", transaction.getType().name());
+            generator.writeNumberField("categoryId", transaction.getCategory().getId());
+            generator.writeStringField("categoryName", transaction.getCategory().getName());
+            generator.writeNumberField("amount", transaction.getAmount());
+            generator.writeStringField("description", transaction.getDescription());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            release(transaction);
+
+            // Flush the first row right away so the client sees data before the cursor is drained
+            if (++rows % FLUSH_INTERVAL == 0 || rows == 1) {
+                generator.flush();
+            }
+        }
+
+        generator.close();
+        return rows;
+    }
+
+    // Detach written rows so the persistence context does not grow with the export
+    private void release(Transaction transaction) {
+        entityManager.detach(transaction);
+    }
+}
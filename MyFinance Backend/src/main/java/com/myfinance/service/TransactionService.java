@@ -1,6 +1,7 @@
 package com.myfinance.service;
 
 import com.myfinance.dto.request.TransactionRequest;
+import com.myfinance.dto.response.TransactionPageResponse;
 import com.myfinance.dto.response.TransactionResponse;
 import com.myfinance.dto.response.TransactionStatsResponse;
 import com.myfinance.dto.response.CategoryResponse;
@@ -13,11 +14,14 @@ import com.myfinance.exception.ResourceNotFoundException;
 import com.myfinance.exception.BadRequestException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,6 +33,11 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final CategoryRepository categoryRepository;
     private final BudgetService budgetService;
+    private final BudgetAlertDispatcher budgetAlertDispatcher;
+    private final UserMonthCategoryTotalService monthCategoryTotalService;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Transactional
     public TransactionResponse createTransaction(TransactionRequest request, Long userId) {
@@ -53,11 +62,16 @@ public class TransactionService {
         transaction.setTransactionDate(request.getTransactionDate());
 
         Transaction savedTransaction = transactionRepository.save(transaction);
+        monthCategoryTotalService.recordAdded(savedTransaction);
+        if (savedTransaction.getType() == TransactionType.EXPENSE) {
+            budgetService.recordExpenseChange(userId, category.getId(),
+                    savedTransaction.getTransactionDate(), savedTransaction.getAmount());
+        }
         log.info("Transaction created successfully with ID: {}", savedTransaction.getId());
 
-        // Check budget alert for EXPENSE transactions
+        // Queue budget alert check for EXPENSE transactions
         if (savedTransaction.getType() == TransactionType.EXPENSE) {
-            budgetService.checkAndSendBudgetAlert(userId, savedTransaction.getCategory().getId());
+            budgetAlertDispatcher.enqueue(userId, savedTransaction.getCategory().getId());
         }
 
         return mapToTransactionResponse(savedTransaction);
@@ -98,6 +112,12 @@ public class TransactionService {
             throw new BadRequestException("Loại giao dịch không khớp với loại danh mục");
         }
 
+        // Keep the pre-update values so the rollup can move the amount between buckets
+        Long previousCategoryId = transaction.getCategory().getId();
+        TransactionType previousType = transaction.getType();
+        LocalDate previousDate = transaction.getTransactionDate();
+        BigDecimal previousAmount = transaction.getAmount();
+
         // Update transaction
         transaction.setCategory(category);
         transaction.setAmount(request.getAmount());
@@ -105,12 +125,25 @@ public class TransactionService {
         transaction.setDescription(request.getDescription());
         transaction.setTransactionDate(request.getTransactionDate());
 
-        Transaction updatedTransaction = transactionRepository.save(transaction);
+        // Flush so the rollup's min/max refresh sees the updated row
+        Transaction updatedTransaction = transactionRepository.saveAndFlush(transaction);
+        monthCategoryTotalService.recordRemoved(userId, previousCategoryId, previousType, previousDate, previousAmount);
+        monthCategoryTotalService.recordAdded(updatedTransaction);
+        if (previousType == TransactionType.EXPENSE) {
+            budgetService.recordExpenseChange(userId, previousCategoryId, previousDate, previousAmount.negate());
+        }
+        if (updatedTransaction.getType() == TransactionType.EXPENSE) {
+            budgetService.recordExpenseChange(userId, category.getId(),
+                    updatedTransaction.getTransactionDate(), updatedTransaction.getAmount());
+        }
         log.info("Transaction updated successfully with ID: {}", updatedTransaction.getId());
 
-        // Check budget alert for EXPENSE transactions
+        // Queue budget alert checks for EXPENSE transactions (old category too, if the expense moved)
         if (updatedTransaction.getType() == TransactionType.EXPENSE) {
-            budgetService.checkAndSendBudgetAlert(userId, updatedTransaction.getCategory().getId());
+            budgetAlertDispatcher.enqueue(userId, updatedTransaction.getCategory().getId());
+        }
+        if (previousType == TransactionType.EXPENSE && !previousCategoryId.equals(updatedTransaction.getCategory().getId())) {
+            budgetAlertDispatcher.enqueue(userId, previousCategoryId);
         }
 
         return mapToTransactionResponse(updatedTransaction);
@@ -121,17 +154,24 @@ public class TransactionService {
         Transaction transaction = transactionRepository.findByIdAndUserId(transactionId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Giao dịch không tồn tại"));
 
-        // Store category and type before deletion (for budget alert check)
+        // Store category and type before deletion (for budget alert check and rollup)
         Long categoryId = transaction.getCategory().getId();
         TransactionType type = transaction.getType();
 
         transactionRepository.delete(transaction);
+        transactionRepository.flush();
+        monthCategoryTotalService.recordRemoved(userId, categoryId, type,
+                transaction.getTransactionDate(), transaction.getAmount());
+        if (type == TransactionType.EXPENSE) {
+            budgetService.recordExpenseChange(userId, categoryId,
+                    transaction.getTransactionDate(), transaction.getAmount().negate());
+        }
         log.info("Transaction deleted successfully with ID: {}", transactionId);
 
-        // Check budget alert after deletion for EXPENSE transactions
-        // This ensures budget usage is recalculated and user is notified if they're back under threshold
+        // Queue budget alert check after deletion for EXPENSE transactions
+        // This re-arms alerts for a threshold once usage drops back below it
         if (type == TransactionType.EXPENSE) {
-            budgetService.checkAndSendBudgetAlert(userId, categoryId);
+            budgetAlertDispatcher.enqueue(userId, categoryId);
         }
     }
 
@@ -168,6 +208,76 @@ public class TransactionService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset pagination over (transaction_date DESC, id DESC).
+     * Cost is bounded by the page size regardless of how much history the user has.
+     */
+    @Transactional(readOnly = true)
+    public TransactionPageResponse getTransactionPage(Long userId,
+                                                      TransactionType type,
+                                                      Long categoryId,
+                                                      LocalDate startDate,
+                                                      LocalDate endDate,
+                                                      String searchTerm,
+                                                      String cursor,
+                                                      Integer size) {
+        int pageSize = (size == null || size <= 0) ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        LocalDate cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            cursorDate = LocalDate.parse(parts[0]);
+            cursorId = Long.parseLong(parts[1]);
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<Transaction> rows = transactionRepository.findTransactionPage(
+            userId, type, categoryId, startDate, endDate,
+            (searchTerm != null && !searchTerm.trim().isEmpty()) ? searchTerm.trim() : null,
+            cursorDate, cursorId, PageRequest.of(0, pageSize + 1)
+        );
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = encodeCursor(last.getTransactionDate(), last.getId());
+        }
+
+        return TransactionPageResponse.builder()
+                .transactions(page.stream()
+                        .map(this::mapToTransactionResponse)
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .size(page.size())
+                .build();
+    }
+
+    private String encodeCursor(LocalDate transactionDate, Long id) {
+        String raw = transactionDate + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Unexpected cursor format");
+            }
+            // Validate both parts up front so a bad cursor is a 400, not a 500
+            LocalDate.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Con trỏ phân trang không hợp lệ");
+        }
+    }
+
     private TransactionResponse mapToTransactionResponse(Transaction transaction) {
         return TransactionResponse.builder()
                 .id(transaction.getId())
@@ -192,26 +302,25 @@ public class TransactionService {
                 .build();
     }
 
-    // Dashboard stats - calculates from ALL transactions (not just recent 10)
+    // Dashboard stats - aggregated in the database over ALL transactions (not just recent 10)
     @Transactional(readOnly = true)
     public TransactionStatsResponse getUserTransactionStats(Long userId) {
         log.debug("Calculating transaction stats for user: {}", userId);
 
-        // Use existing repository method that gets all user transactions
-        List<Transaction> allTransactions = transactionRepository.findByUserIdOrderByTransactionDateDesc(userId);
-
-        BigDecimal totalIncome = allTransactions.stream()
-                .filter(t -> t.getType() == TransactionType.INCOME)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalExpense = allTransactions.stream()
-                .filter(t -> t.getType() == TransactionType.EXPENSE)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalIncome = BigDecimal.ZERO;
+        BigDecimal totalExpense = BigDecimal.ZERO;
+        long transactionCount = 0;
+
+        for (TransactionRepository.TypeTotal row : transactionRepository.sumByTypeForUser(userId)) {
+            if (row.getType() == TransactionType.INCOME) {
+                totalIncome = row.getTotal();
+            } else if (row.getType() == TransactionType.EXPENSE) {
+                totalExpense = row.getTotal();
+            }
+            transactionCount += row.getCount();
+        }
 
         BigDecimal balance = totalIncome.subtract(totalExpense);
-        Long transactionCount = (long) allTransactions.size();
 
         log.debug("Stats for user {}: Income={}, Expense={}, Balance={}, Count={}",
                   userId, totalIncome, totalExpense, balance, transactionCount);
@@ -58,6 +58,18 @@ public class UserBudgetSettingsService {
         log.info("Reset budget settings to defaults for user: {}", userId);
     }
 
+    /**
+     * Both thresholds in one read; unsaved defaults when the user has no settings row
+     */
+    public UserBudgetSettings getThresholds(Long userId) {
+        return settingsRepository.findByUserId(userId)
+                .orElseGet(() -> {
+                    UserBudgetSettings defaults = new UserBudgetSettings();
+                    defaults.setUserId(userId);
+                    return defaults;
+                });
+    }
+
     public double getWarningThreshold(Long userId) {
         return settingsRepository.findByUserId(userId)
                 .map(UserBudgetSettings::getWarningThreshold)
@@ -0,0 +1,84 @@
+package com.myfinance.service;
+
+import com.myfinance.entity.Transaction;
+import com.myfinance.entity.TransactionType;
+import com.myfinance.entity.UserMonthCategoryTotal;
+import com.myfinance.repository.UserMonthCategoryTotalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintains the user_month_category_totals rollup and serves month-level reads from it.
+ * Writes join the caller's transaction so the rollup never diverges from the raw rows.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserMonthCategoryTotalService {
+
+    private final UserMonthCategoryTotalRepository totalRepository;
+    private final ReportCacheService reportCacheService;
+
+    /**
+     * Add a newly persisted transaction to its bucket
+     */
+    @Transactional
+    public void recordAdded(Transaction transaction) {
+        LocalDate date = transaction.getTransactionDate();
+        totalRepository.addToBucket(
+                transaction.getUserId(),
+                date.getYear(),
+                date.getMonthValue(),
+                transaction.getCategory().getId(),
+                transaction.getType().name(),
+                transaction.getAmount());
+        reportCacheService.evictForTransaction(transaction.getUserId(), date);
+    }
+
+    /**
+     * Remove a transaction (as it was before an update or delete) from its bucket
+     */
+    @Transactional
+    public void recordRemoved(Long userId, Long categoryId, TransactionType type, LocalDate date, BigDecimal amount) {
+        int year = date.getYear();
+        int month = date.getMonthValue();
+        String typeName = type.name();
+
+        totalRepository.removeFromBucket(userId, year, month, categoryId, typeName, amount);
+        if (totalRepository.deleteIfEmpty(userId, year, month, categoryId, typeName) == 0) {
+            // Removed amount may have been the bucket's min or max
+            LocalDate monthStart = date.withDayOfMonth(1);
+            LocalDate monthEnd = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
+            totalRepository.refreshBucketExtremes(userId, year, month, categoryId, typeName, monthStart, monthEnd);
+        }
+        reportCacheService.evictForTransaction(userId, date);
+    }
+
+    public List<UserMonthCategoryTotal> getMonthTotals(Long userId, int year, int month) {
+        return totalRepository.findByUserIdAndPeriodYearAndPeriodMonth(userId, year, month);
+    }
+
+    public List<UserMonthCategoryTotal> getYearTotals(Long userId, int year) {
+        return totalRepository.findByUserIdAndPeriodYearOrderByPeriodMonth(userId, year);
+    }
+
+    public BigDecimal getCategoryMonthTotal(Long userId, Long categoryId, TransactionType type, int year, int month) {
+        return totalRepository.findByUserIdAndPeriodYearAndPeriodMonthAndCategoryIdAndType(userId, year, month, categoryId, type)
+                .map(UserMonthCategoryTotal::getTotalAmount)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    /**
+     * Rollup rows of all users for whole months from start's month through end's month
+     */
+    public List<UserMonthCategoryTotal> getAllTotalsForMonths(LocalDate start, LocalDate end) {
+        return totalRepository.findAllInMonthRange(
+                start.getYear(), start.getMonthValue(), end.getYear(), end.getMonthValue());
+    }
+}
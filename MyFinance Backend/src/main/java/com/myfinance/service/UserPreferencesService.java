@@ -3,23 +3,38 @@ package com.myfinance.service;
 import com.myfinance.entity.UserPreferences;
 import com.myfinance.exception.ResourceNotFoundException;
 import com.myfinance.repository.UserPreferencesRepository;
-import lombok.RequiredArgsConstructor;
+import com.myfinance.util.TtlCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserPreferencesService {
 
     private final UserPreferencesRepository preferencesRepository;
 
+    // Holds detached copies only
+    private final TtlCache<Long, UserPreferences> cache;
+
+    public UserPreferencesService(UserPreferencesRepository preferencesRepository,
+                                  @Value("${app.preferences-cache.max-size:10000}") int cacheMaxSize,
+                                  @Value("${app.preferences-cache.ttl-ms:600000}") long cacheTtlMs) {
+        this.preferencesRepository = preferencesRepository;
+        this.cache = new TtlCache<>(cacheMaxSize, cacheTtlMs);
+    }
+
     /**
      * Get user preferences by user ID
-     * Creates default preferences if not exists
+     * Served from a bounded in-memory cache; creates default preferences if not exists.
+     * The returned object is a copy - changes must go through updatePreferences.
      */
     public UserPreferences getUserPreferences(Long userId) {
+        return copyOf(cache.get(userId, id -> copyOf(loadPreferences(id))));
+    }
+
+    private UserPreferences loadPreferences(Long userId) {
         return preferencesRepository.findByUserId(userId)
                 .orElseGet(() -> createDefaultPreferences(userId));
     }
@@ -43,9 +58,10 @@ public class UserPreferencesService {
         // Display Preferences (1 field)
         preferences.setViewMode("detailed");
 
-        // Notification Preferences (2 fields)
+        // Notification Preferences (3 fields)
         preferences.setEmailNotifications(true);
         preferences.setBudgetAlerts(true);
+        preferences.setBudgetAlertDigest(false);
 
         UserPreferences savedPreferences = preferencesRepository.save(preferences);
         log.info("Default preferences created for user: {}", userId);
@@ -60,22 +76,26 @@ public class UserPreferencesService {
     public UserPreferences updatePreferences(Long userId, UserPreferences updatedPreferences) {
         log.info("Updating preferences for user: {}", userId);
 
-        UserPreferences preferences = getUserPreferences(userId);
+        UserPreferences preferences = loadPreferences(userId);
 
         // Update display preferences (1 field)
         if (updatedPreferences.getViewMode() != null) {
             preferences.setViewMode(updatedPreferences.getViewMode());
         }
 
-        // Update notification preferences (2 fields)
+        // Update notification preferences (3 fields)
         if (updatedPreferences.getEmailNotifications() != null) {
             preferences.setEmailNotifications(updatedPreferences.getEmailNotifications());
         }
         if (updatedPreferences.getBudgetAlerts() != null) {
             preferences.setBudgetAlerts(updatedPreferences.getBudgetAlerts());
         }
+        if (updatedPreferences.getBudgetAlertDigest() != null) {
+            preferences.setBudgetAlertDigest(updatedPreferences.getBudgetAlertDigest());
+        }
 
         UserPreferences savedPreferences = preferencesRepository.save(preferences);
+        cache.evictAfterCommit(userId);
         log.info("Preferences updated successfully for user: {}", userId);
 
         return savedPreferences;
@@ -88,17 +108,19 @@ public class UserPreferencesService {
     public UserPreferences resetToDefaults(Long userId) {
         log.info("Resetting preferences to default for user: {}", userId);
 
-        UserPreferences preferences = getUserPreferences(userId);
+        UserPreferences preferences = loadPreferences(userId);
 
         // Reset to default values
         // Display Preferences (1 field)
         preferences.setViewMode("detailed");
 
-        // Notification Preferences (2 fields)
+        // Notification Preferences (3 fields)
         preferences.setEmailNotifications(true);
         preferences.setBudgetAlerts(true);
+        preferences.setBudgetAlertDigest(false);
 
         UserPreferences savedPreferences = preferencesRepository.save(preferences);
+        cache.evictAfterCommit(userId);
         log.info("Preferences reset to default for user: {}", userId);
 
         return savedPreferences;
@@ -111,5 +133,12 @@ public class UserPreferencesService {
     public void deletePreferences(Long userId) {
         log.info("Deleting preferences for user: {}", userId);
         preferencesRepository.deleteByUserId(userId);
+        cache.evictAfterCommit(userId);
+    }
+
+    private static UserPreferences copyOf(UserPreferences preferences) {
+        return new UserPreferences(preferences.getId(), preferences.getUserId(), preferences.getViewMode(),
+                preferences.getEmailNotifications(), preferences.getBudgetAlerts(), preferences.getBudgetAlertDigest(),
+                preferences.getCreatedAt(), preferences.getUpdatedAt());
     }
 }
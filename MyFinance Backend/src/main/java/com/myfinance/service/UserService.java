@@ -28,6 +28,7 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserStatusService userStatusService;
     private final UserRoleRepository userRoleRepository;
     private final TransactionService transactionService;
     private final BudgetService budgetService;
@@ -73,6 +74,7 @@ public class UserService {
         targetUser.setIsActive(isActive);
         targetUser.setUpdatedAt(LocalDateTime.now());
         userRepository.save(targetUser);
+        userStatusService.evict(userId);
 
         log.info("Cập nhật trạng thái người dùng {} thành {}: {}",
                  targetUser.getEmail(), isActive ? "ACTIVE" : "INACTIVE", reason);
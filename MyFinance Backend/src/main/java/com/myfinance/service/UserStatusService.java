@@ -0,0 +1,83 @@
+package com.myfinance.service;
+
+import com.myfinance.repository.UserRepository;
+import com.myfinance.util.TtlCache;
+import com.myfinance.util.VerifiedTokenCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Short-lived cache of whether a user account is active and which tokens it still accepts,
+ * checked on every authenticated request.
+ * Status changes and revocations on this instance take effect immediately; on other instances within the TTL.
+ */
+@Service
+@Slf4j
+public class UserStatusService {
+
+    // tokensValidAfter: epoch second before which issued tokens are rejected, 0 when never revoked
+    private record CachedStatus(boolean active, long tokensValidAfter) {
+    }
+
+    private final UserRepository userRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TtlCache<Long, CachedStatus> cache;
+
+    public UserStatusService(UserRepository userRepository, VerifiedTokenCache verifiedTokenCache,
+                             @Value("${app.security.user-status-cache.max-size:50000}") int maxSize,
+                             @Value("${app.security.user-status-cache.ttl-ms:30000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.cache = new TtlCache<>(maxSize, ttlMs);
+    }
+
+    /**
+     * Whether the user exists, is active and has not revoked tokens issued at the given time
+     */
+    public boolean isTokenAccepted(Long userId, Date issuedAt) {
+        CachedStatus status = getStatus(userId);
+        if (!status.active()) {
+            return false;
+        }
+        // Token iat has second precision; a token issued in the cutoff second itself is revoked
+        return status.tokensValidAfter() == 0
+                || (issuedAt != null && issuedAt.getTime() / 1000 > status.tokensValidAfter());
+    }
+
+    /**
+     * Reject every token of the user issued up to now, e.g. on logout or password change.
+     * Tokens issued afterwards must be issued after the returned cutoff (see JwtUtil's revokedUntil overloads).
+     */
+    @Transactional
+    public LocalDateTime revokeTokens(Long userId) {
+        LocalDateTime cutoff = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        userRepository.updateTokensValidAfter(userId, cutoff);
+        evict(userId);
+        verifiedTokenCache.evictUser(userId);
+        log.info("Revoked previously issued tokens of user: {}", userId);
+        return cutoff;
+    }
+
+    private CachedStatus getStatus(Long userId) {
+        return cache.get(userId, id -> userRepository.findAuthStatusById(id)
+                .map(auth -> new CachedStatus(
+                        Boolean.TRUE.equals(auth.getIsActive()),
+                        auth.getTokensValidAfter() == null ? 0
+                                : auth.getTokensValidAfter().atZone(ZoneId.systemDefault()).toEpochSecond()))
+                .orElse(new CachedStatus(false, 0)));
+    }
+
+    /**
+     * Drop the cached status once the surrounding transaction commits (e.g. user locked or unlocked, tokens revoked)
+     */
+    public void evict(Long userId) {
+        cache.evictAfterCommit(userId);
+    }
+}
@@ -1,6 +1,7 @@
 package com.myfinance.util;
 
 import com.myfinance.service.SystemConfigService;
+import com.myfinance.service.UserStatusService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +10,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.function.Function;
 
@@ -24,6 +27,8 @@ public class JwtUtil {
     private Long jwtExpiration;
 
     private final SystemConfigService systemConfigService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserStatusService userStatusService;
 
     // Generate secret key
     private SecretKey getSigningKey() {
@@ -97,14 +102,23 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    // Extract all claims from token
+    // Extract all claims from token; tokens verified before are served from the cache until they expire
     private Claims extractAllClaims(String token) {
+        String digest = verifiedTokenCache.digest(token);
+        Claims cached = verifiedTokenCache.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+
         try {
-            return Jwts.parserBuilder()
+            long startedAt = System.nanoTime();
+            Claims claims = Jwts.parserBuilder()
                     .setSigningKey(getSigningKey())
                     .build()
                     .parseClaimsJws(token)
                     .getBody();
+            verifiedTokenCache.put(digest, claims, System.nanoTime() - startedAt);
+            return claims;
         } catch (ExpiredJwtException e) {
             log.error("JWT token is expired: {}", e.getMessage());
             throw e;
@@ -131,36 +145,57 @@ public class JwtUtil {
 
     // Generate token for user
     public String generateToken(Long userId, String username) {
+        return generateToken(userId, username, (LocalDateTime) null);
+    }
+
+    // Generate token for user, issued after the user's token revocation cutoff (null when never revoked)
+    public String generateToken(Long userId, String username, LocalDateTime revokedUntil) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
-        return createToken(claims, username);
+        return createToken(claims, username, revokedUntil);
     }
 
     // Generate token with roles and permissions
     public String generateToken(Long userId, String username, List<String> roles, List<String> permissions) {
+        return generateToken(userId, username, roles, permissions, null);
+    }
+
+    private String generateToken(Long userId, String username, List<String> roles, List<String> permissions,
+                                 LocalDateTime revokedUntil) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("roles", roles != null ? roles : new ArrayList<>());
         claims.put("permissions", permissions != null ? permissions : new ArrayList<>());
-        return createToken(claims, username);
+        return createToken(claims, username, revokedUntil);
     }
 
     // Generate token with roles only
     public String generateTokenWithRoles(Long userId, String username, List<String> roles) {
-        return generateToken(userId, username, roles, new ArrayList<>());
+        return generateTokenWithRoles(userId, username, roles, null);
+    }
+
+    // Generate token with roles only, issued after the user's token revocation cutoff (null when never revoked)
+    public String generateTokenWithRoles(Long userId, String username, List<String> roles, LocalDateTime revokedUntil) {
+        return generateToken(userId, username, roles, new ArrayList<>(), revokedUntil);
     }
 
     // Create token with claims
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, LocalDateTime revokedUntil) {
         // Read session timeout from config (hours), fallback to application.properties (24 hours)
         int sessionTimeoutHours = systemConfigService.getIntConfig("SESSION_TIMEOUT_HOURS", 24);
         long expirationMs = sessionTimeoutHours * 60L * 60L * 1000L; // Convert hours to milliseconds
 
+        // iat is stored in whole seconds and tokens issued in the cutoff second are revoked,
+        // so a token issued in that second is dated to the next one
+        long now = System.currentTimeMillis();
+        long issuedAt = revokedUntil == null ? now
+                : Math.max(now, (revokedUntil.atZone(ZoneId.systemDefault()).toEpochSecond() + 1) * 1000);
+
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
+                .setIssuedAt(new Date(issuedAt))
+                .setExpiration(new Date(now + expirationMs))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
@@ -204,6 +239,11 @@ public class JwtUtil {
             String username = claims.getSubject();
             Long userId = claims.get("userId", Long.class);
 
+            // A revoked token (logout, password change or reset) cannot be exchanged for a fresh one
+            if (userId == null || !userStatusService.isTokenAccepted(userId, claims.getIssuedAt())) {
+                throw new JwtException("Token has been revoked");
+            }
+
             return generateToken(userId, username);
         } catch (JwtException e) {
             log.error("Error refreshing token: {}", e.getMessage());
@@ -0,0 +1,89 @@
+package com.myfinance.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Small bounded per-key cache with a fixed TTL and LRU trimming, for values that are read on
+ * every request and invalidated by writes on this instance.
+ * Evictions run after the surrounding transaction commits, and a value loaded concurrently with
+ * an eviction is not cached, so stale data never outlives the write that changed it.
+ * Cached values are shared between callers and must not be modified.
+ */
+public class TtlCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final long ttlMs;
+
+    // Access-ordered for LRU eviction; guarded by "this"
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    // Bumped on every eviction so a value loaded before a change is never cached after it
+    private final AtomicLong writeVersion = new AtomicLong();
+
+    public TtlCache(int maxSize, long ttlMs) {
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Cached value of the key, or the loader's result (loaded outside the lock and cached unless evicted meanwhile)
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long now = System.currentTimeMillis();
+
+        synchronized (this) {
+            Entry<V> cached = entries.get(key);
+            if (cached != null) {
+                if (cached.expiresAt() > now) {
+                    return cached.value();
+                }
+                entries.remove(key);
+            }
+        }
+
+        long version = writeVersion.get();
+        V value = loader.apply(key);
+
+        synchronized (this) {
+            if (writeVersion.get() == version) {
+                entries.put(key, new Entry<>(value, now + ttlMs));
+                Iterator<K> eldest = entries.keySet().iterator();
+                while (entries.size() > maxSize && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drop the key once the surrounding transaction commits, or immediately outside one
+     */
+    public void evictAfterCommit(K key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(key);
+                }
+            });
+        } else {
+            evict(key);
+        }
+    }
+
+    private synchronized void evict(K key) {
+        writeVersion.incrementAndGet();
+        entries.remove(key);
+    }
+}
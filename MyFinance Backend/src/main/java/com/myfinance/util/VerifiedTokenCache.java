@@ -0,0 +1,164 @@
+package com.myfinance.util;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Claims of already verified JWTs, kept until the token expires so repeated requests with the same
+ * token skip signature verification. Keyed by a SHA-256 digest, so raw tokens are not held in memory.
+ * Split into LRU segments to keep lock contention low on the per-request path.
+ * Cached claims are shared between requests and must not be modified.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private record CachedToken(Claims claims, long expiresAt, Long userId) {
+    }
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    @Value("${app.security.token-cache.enabled:true}")
+    private boolean enabled;
+
+    // Metrics
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong verifications = new AtomicLong();
+    private final AtomicLong totalVerifyNanos = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public VerifiedTokenCache(@Value("${app.security.token-cache.max-size:10000}") int maxSize) {
+        int segmentSize = Math.max(1, maxSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * Digest used as the cache key of a token
+     */
+    public String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Cached claims of a still valid token, or null
+     */
+    public Claims get(String digest) {
+        if (!enabled) {
+            return null;
+        }
+
+        Segment segment = segmentFor(digest);
+        synchronized (segment) {
+            CachedToken entry = segment.get(digest);
+            if (entry != null) {
+                if (entry.expiresAt() > System.currentTimeMillis()) {
+                    hits.incrementAndGet();
+                    return entry.claims();
+                }
+                segment.remove(digest);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Remember the claims of a token whose signature was just verified
+     */
+    public void put(String digest, Claims claims, long verifyNanos) {
+        verifications.incrementAndGet();
+        totalVerifyNanos.addAndGet(verifyNanos);
+
+        Date expiration = claims.getExpiration();
+        if (!enabled || expiration == null) {
+            return;
+        }
+
+        CachedToken entry = new CachedToken(claims, expiration.getTime(), claims.get("userId", Long.class));
+        Segment segment = segmentFor(digest);
+        synchronized (segment) {
+            segment.put(digest, entry);
+        }
+    }
+
+    /**
+     * Drop every cached token of a user once its tokens are revoked (UserStatusService.revokeTokens).
+     * Revocation itself is enforced by the token cutoff check; this only frees the entries.
+     */
+    public void evictUser(Long userId) {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.values().removeIf(entry -> {
+                    boolean match = userId.equals(entry.userId());
+                    if (match) {
+                        evictions.incrementAndGet();
+                    }
+                    return match;
+                });
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        long verified = verifications.get();
+
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", size);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("hitRate", lookups == 0 ? 0.0 : Math.round(hitCount * 10000.0 / lookups) / 100.0);
+        stats.put("verifications", verified);
+        stats.put("averageVerifyMicros", verified == 0 ? 0 : totalVerifyNanos.get() / verified / 1000);
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    private Segment segmentFor(String digest) {
+        return segments[Math.floorMod(digest.hashCode(), SEGMENTS)];
+    }
+
+    // Access-ordered for LRU eviction; guarded by the segment itself
+    private static class Segment extends LinkedHashMap<String, CachedToken> {
+
+        private final int maxSize;
+
+        Segment(int maxSize) {
+            super(64, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedToken> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.myfinance.repository;
+
+import com.myfinance.entity.ScheduledReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The claim UPDATE against a real database: two instances claiming the same due reports concurrently,
+ * each with its own token, must split them so that every report runs on exactly one node.
+ * Not transactional, so every claim commits on its own like it does in production.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ScheduledReportClaimTest {
+
+    private static final int REPORT_COUNT = 500;
+    private static final int CLAIM_BATCH = 50;
+
+    @Autowired
+    private ScheduledReportRepository scheduledReportRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        scheduledReportRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentInstancesClaimEveryDueReportExactlyOnce() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = seedReports(REPORT_COUNT, now.minusMinutes(1));
+        List<Long> futureIds = seedReports(10, now.plusHours(1));
+
+        List<Long> polled = new ArrayList<>(dueIds);
+        polled.addAll(futureIds);
+
+        // Both instances poll the same ids (in different orders) and claim them in batches at the same moment
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService nodes = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> nodeA = nodes.submit(claimer("node-a", polled, now, start, 1));
+            Future<Integer> nodeB = nodes.submit(claimer("node-b", polled, now, start, 2));
+            start.countDown();
+
+            int claimedByA = nodeA.get();
+            int claimedByB = nodeB.get();
+            assertThat(claimedByA + claimedByB).isEqualTo(REPORT_COUNT);
+        } finally {
+            nodes.shutdownNow();
+        }
+
+        Set<Long> heldByA = idsClaimedBy("node-a");
+        Set<Long> heldByB = idsClaimedBy("node-b");
+        assertThat(heldByA).doesNotContainAnyElementsOf(heldByB);
+        assertThat(union(heldByA, heldByB)).containsExactlyInAnyOrderElementsOf(dueIds);
+        assertThat(idsClaimedBy(null)).containsExactlyInAnyOrderElementsOf(futureIds);
+    }
+
+    @Test
+    void expiredClaimIsTakenOverButLiveClaimIsNot() {
+        LocalDateTime now = LocalDateTime.now();
+        Long crashed = seedReports(1, now.minusMinutes(5)).get(0);
+        Long running = seedReports(1, now.minusMinutes(5)).get(0);
+        holdClaim(crashed, "dead-node", now.minusSeconds(1));
+        holdClaim(running, "live-node", now.plusMinutes(10));
+
+        int claimed = scheduledReportRepository.claimReports(
+                List.of(crashed, running), now, now.plusMinutes(30), "node-b");
+
+        assertThat(claimed).isEqualTo(1);
+        assertThat(idsClaimedBy("node-b")).containsExactly(crashed);
+        assertThat(idsClaimedBy("live-node")).containsExactly(running);
+
+        // The node whose expired claim was taken over can no longer release it
+        assertThat(scheduledReportRepository.releaseClaim(crashed, "dead-node")).isZero();
+        assertThat(scheduledReportRepository.releaseClaim(crashed, "node-b")).isEqualTo(1);
+        assertThat(idsClaimedBy(null)).contains(crashed);
+    }
+
+    private Callable<Integer> claimer(String token, List<Long> polled, LocalDateTime now,
+                                      CountDownLatch start, long seed) {
+        return () -> {
+            List<Long> ids = new ArrayList<>(polled);
+            Collections.shuffle(ids, new Random(seed));
+            start.await();
+
+            int claimed = 0;
+            for (int from = 0; from < ids.size(); from += CLAIM_BATCH) {
+                List<Long> batch = ids.subList(from, Math.min(from + CLAIM_BATCH, ids.size()));
+                claimed += scheduledReportRepository.claimReports(batch, now, now.plusMinutes(30), token);
+            }
+            return claimed;
+        };
+    }
+
+    private List<Long> seedReports(int count, LocalDateTime nextRun) {
+        List<ScheduledReport> reports = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reports.add(ScheduledReport.builder()
+                    .userId(1L + i % 20)
+                    .reportType(ScheduledReport.ReportType.MONTHLY)
+                    .frequency(ScheduledReport.ScheduleFrequency.DAILY)
+                    .format(ScheduledReport.ReportFormat.PDF)
+                    .emailDelivery(true)
+                    .isActive(true)
+                    .runCount(0)
+                    .nextRun(nextRun)
+                    .build());
+        }
+        return scheduledReportRepository.saveAll(reports).stream().map(ScheduledReport::getId).toList();
+    }
+
+    private void holdClaim(Long id, String token, LocalDateTime claimedUntil) {
+        jdbcTemplate.update("UPDATE scheduled_reports SET claim_token = ?, claimed_until = ? WHERE id = ?",
+                token, Timestamp.valueOf(claimedUntil), id);
+    }
+
+    private Set<Long> idsClaimedBy(String token) {
+        List<Long> ids = token == null
+                ? jdbcTemplate.queryForList("SELECT id FROM scheduled_reports WHERE claim_token IS NULL", Long.class)
+                : jdbcTemplate.queryForList("SELECT id FROM scheduled_reports WHERE claim_token = ?", Long.class, token);
+        return new HashSet<>(ids);
+    }
+
+    private static Set<Long> union(Set<Long> a, Set<Long> b) {
+        Set<Long> all = new HashSet<>(a);
+        all.addAll(b);
+        return all;
+    }
+}
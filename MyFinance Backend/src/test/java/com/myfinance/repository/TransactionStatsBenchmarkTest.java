@@ -0,0 +1,118 @@
+package com.myfinance.repository;
+
+import com.myfinance.entity.Transaction;
+import com.myfinance.entity.TransactionType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dashboard stats over 100k transactions: loading every row and summing in Java
+ * versus the GROUP BY type aggregate, on an in-memory H2 database in MySQL mode.
+ * Checks that the aggregate matches the loaded rows in a single statement and logs the timings.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stats_benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TransactionStatsBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionStatsBenchmarkTest.class);
+
+    private static final long USER_ID = 1L;
+    private static final int TRANSACTION_COUNT = 100_000;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void aggregateQueryMatchesLoadedRowsInOneStatement() {
+        seedTransactions();
+
+        Map<TransactionType, BigDecimal> loaded = new EnumMap<>(TransactionType.class);
+        long loadedNanos = bestOf(3, () -> {
+            entityManager.clear();
+            loaded.clear();
+            for (Transaction t : transactionRepository.findByUserIdOrderByTransactionDateDesc(USER_ID)) {
+                loaded.merge(t.getType(), t.getAmount(), BigDecimal::add);
+            }
+        });
+        long aggregatedNanos = bestOf(3, () -> transactionRepository.sumByTypeForUser(USER_ID));
+
+        log.info("Stats over {} transactions: load all rows {} ms, GROUP BY aggregate {} ms",
+                TRANSACTION_COUNT, loadedNanos / 1_000_000, aggregatedNanos / 1_000_000);
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<TransactionType, BigDecimal> aggregated = new EnumMap<>(TransactionType.class);
+        long aggregatedCount = 0;
+        for (TransactionRepository.TypeTotal row : transactionRepository.sumByTypeForUser(USER_ID)) {
+            aggregated.put(row.getType(), row.getTotal());
+            aggregatedCount += row.getCount();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(aggregatedCount).isEqualTo(TRANSACTION_COUNT);
+        for (TransactionType type : TransactionType.values()) {
+            assertThat(aggregated.get(type)).isEqualByComparingTo(loaded.get(type));
+        }
+    }
+
+    private void seedTransactions() {
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, type, color, icon, is_default) " +
+                "VALUES (1, ?, 'Ăn uống', 'EXPENSE', '#007bff', 'default', false)", USER_ID);
+
+        List<Object[]> rows = new ArrayList<>(TRANSACTION_COUNT);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < TRANSACTION_COUNT; i++) {
+            TransactionType type = i % 5 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE;
+            rows.add(new Object[]{USER_ID, 1L, BigDecimal.valueOf(1000 + i % 997, 2), type.name(),
+                    Date.valueOf(start.plusDays(i % 2000))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (user_id, category_id, amount, type, transaction_date) " +
+                "VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    private static long bestOf(int runs, Runnable action) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long startedAt = System.nanoTime();
+            action.run();
+            best = Math.min(best, System.nanoTime() - startedAt);
+        }
+        return best;
+    }
+}
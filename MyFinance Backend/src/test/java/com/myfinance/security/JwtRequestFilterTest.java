@@ -0,0 +1,184 @@
+package com.myfinance.security;
+
+import com.myfinance.repository.UserRepository;
+import com.myfinance.service.SystemConfigService;
+import com.myfinance.service.UserStatusService;
+import com.myfinance.util.JwtUtil;
+import com.myfinance.util.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Database work per authenticated request: claims-based auth verifies a token once and reads the
+ * user's status at most once per cache TTL, however many requests carry the token
+ */
+class JwtRequestFilterTest {
+
+    private static final Long USER_ID = 42L;
+
+    private UserRepository userRepository;
+    private UserDetailsService userDetailsService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private UserStatusService userStatusService;
+    private JwtUtil jwtUtil;
+    private JwtRequestFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userDetailsService = mock(UserDetailsService.class);
+        SystemConfigService systemConfigService = mock(SystemConfigService.class);
+        when(systemConfigService.getIntConfig(eq("SESSION_TIMEOUT_HOURS"), anyInt())).thenReturn(24);
+
+        verifiedTokenCache = new VerifiedTokenCache(1000);
+        ReflectionTestUtils.setField(verifiedTokenCache, "enabled", true);
+
+        userStatusService = new UserStatusService(userRepository, verifiedTokenCache, 1000, 60_000L);
+
+        jwtUtil = new JwtUtil(systemConfigService, verifiedTokenCache, userStatusService);
+        ReflectionTestUtils.setField(jwtUtil, "secretKey",
+                "test_secret_key_that_is_long_enough_for_hs512_signatures_in_unit_tests_only");
+
+        filter = new JwtRequestFilter(userDetailsService, jwtUtil, userStatusService);
+        ReflectionTestUtils.setField(filter, "claimsAuthEnabled", true);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeatedRequestsWithOneTokenCostASingleStatusQuery() throws Exception {
+        givenStatus(true, null);
+        String token = jwtUtil.generateTokenWithRoles(USER_ID, "user@example.com", List.of("ADMIN"));
+
+        for (int i = 0; i < 100; i++) {
+            Authentication authentication = authenticate(token);
+
+            assertThat(authentication).isNotNull();
+            assertThat(authentication.getPrincipal()).isEqualTo(
+                    new JwtPrincipal(USER_ID, "user@example.com", List.of("ADMIN")));
+            assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                    .containsExactly("ROLE_USER", "ROLE_ADMIN");
+        }
+
+        verify(userRepository, times(1)).findAuthStatusById(USER_ID);
+        verifyNoMoreInteractions(userRepository);
+        verifyNoInteractions(userDetailsService);
+        assertThat(verifiedTokenCache.getStats())
+                .containsEntry("verifications", 1L)
+                .containsEntry("hits", 99L);
+    }
+
+    @Test
+    void rejectsTokensOfInactiveUsers() throws Exception {
+        givenStatus(false, null);
+        String token = jwtUtil.generateTokenWithRoles(USER_ID, "user@example.com", List.of());
+
+        assertThat(authenticate(token)).isNull();
+        assertThat(authenticate(token)).isNull();
+        verify(userRepository, times(1)).findAuthStatusById(USER_ID);
+    }
+
+    @Test
+    void revocationRejectsOlderTokensWithOneReload() throws Exception {
+        givenStatus(true, null);
+        String token = jwtUtil.generateTokenWithRoles(USER_ID, "user@example.com", List.of());
+        assertThat(authenticate(token)).isNotNull();
+
+        LocalDateTime cutoff = revokeAndStoreCutoff();
+
+        assertThat(authenticate(token)).isNull();
+        assertThat(authenticate(token)).isNull();
+        verify(userRepository, times(2)).findAuthStatusById(USER_ID);
+
+        // Issued after the cutoff, e.g. the replacement token of a password change: accepted right away
+        String replacement = jwtUtil.generateTokenWithRoles(USER_ID, "user@example.com", List.of(), cutoff);
+        assertThat(authenticate(replacement)).isNotNull();
+    }
+
+    @Test
+    void tokenIssuedInTheCutoffSecondIsRevoked() {
+        givenStatus(true, null);
+        LocalDateTime cutoff = revokeAndStoreCutoff();
+        long cutoffMillis = cutoff.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        assertThat(userStatusService.isTokenAccepted(USER_ID, new Date(cutoffMillis))).isFalse();
+        assertThat(userStatusService.isTokenAccepted(USER_ID, new Date(cutoffMillis + 999))).isFalse();
+        assertThat(userStatusService.isTokenAccepted(USER_ID, new Date(cutoffMillis + 1000))).isTrue();
+
+        // A token generated for the user right now is dated after the cutoff second
+        String token = jwtUtil.generateToken(USER_ID, "user@example.com", cutoff);
+        assertThat(jwtUtil.extractClaim(token, Claims::getIssuedAt)).isAfterOrEqualTo(new Date(cutoffMillis + 1000));
+    }
+
+    @Test
+    void revokedTokenCannotBeRefreshed() {
+        givenStatus(true, null);
+        String token = jwtUtil.generateTokenWithRoles(USER_ID, "user@example.com", List.of());
+        assertThat(jwtUtil.refreshToken(token)).isNotBlank();
+
+        revokeAndStoreCutoff();
+
+        assertThatThrownBy(() -> jwtUtil.refreshToken(token)).isInstanceOf(JwtException.class);
+    }
+
+    /**
+     * Revoke the user's tokens and serve the cutoff revokeTokens wrote as the stored status
+     */
+    private LocalDateTime revokeAndStoreCutoff() {
+        LocalDateTime returned = userStatusService.revokeTokens(USER_ID);
+
+        ArgumentCaptor<LocalDateTime> stored = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(userRepository).updateTokensValidAfter(eq(USER_ID), stored.capture());
+        assertThat(stored.getValue()).isEqualTo(returned);
+        givenStatus(true, stored.getValue());
+        return stored.getValue();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private void givenStatus(boolean active, LocalDateTime tokensValidAfter) {
+        UserRepository.AuthStatus status = mock(UserRepository.AuthStatus.class);
+        when(status.getIsActive()).thenReturn(active);
+        when(status.getTokensValidAfter()).thenReturn(tokensValidAfter);
+        when(userRepository.findAuthStatusById(USER_ID)).thenReturn(Optional.of(status));
+    }
+}
@@ -0,0 +1,157 @@
+package com.myfinance.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.myfinance.entity.EmailOutbox;
+import com.myfinance.repository.EmailOutboxRepository;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batch delivery of the email outbox: a real SMTP round trip through GreenMail and per-message failures
+ */
+class EmailOutboxServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @SuppressWarnings("unchecked")
+    private final ArgumentCaptor<Collection<Long>> sentIds = ArgumentCaptor.forClass(Collection.class);
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository = mock(EmailOutboxRepository.class);
+    }
+
+    @Test
+    void sendsAClaimedBatchInOneCallAndMarksItSent() throws Exception {
+        JavaMailSenderImpl smtp = new JavaMailSenderImpl();
+        smtp.setHost("localhost");
+        smtp.setPort(ServerSetupTest.SMTP.getPort());
+        JavaMailSenderImpl mailSender = spy(smtp);
+
+        List<EmailOutbox> batch = List.of(
+                email(1L, "a@example.com"), email(2L, "b@example.com"), email(3L, "c@example.com"));
+        givenClaimedBatch(batch);
+
+        service(mailSender).pollOutbox();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(3);
+        assertThat(greenMail.getReceivedMessagesForDomain("b@example.com")[0].getSubject()).isEqualTo("Subject 2");
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+        verify(emailOutboxRepository).markSent(sentIds.capture(), any());
+        assertThat(sentIds.getValue()).containsExactlyInAnyOrder(1L, 2L, 3L);
+        verify(emailOutboxRepository, never()).markFailedAttempt(anyLong(), anyString(), anyInt(), anyString(), any());
+    }
+
+    @Test
+    void retriesOnlyTheMessagesTheServerRejected() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+
+        // The second message of the batch is rejected, the others are delivered
+        doAnswer(invocation -> {
+            Object rejected = null;
+            for (Object message : invocation.getArguments()) {
+                if ("b@example.com".equals(((MimeMessage) message).getAllRecipients()[0].toString())) {
+                    rejected = message;
+                }
+            }
+            throw new MailSendException(Map.of(rejected, new RuntimeException("550 mailbox unavailable")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        givenClaimedBatch(List.of(email(1L, "a@example.com"), email(2L, "b@example.com"), email(3L, "c@example.com")));
+
+        EmailOutboxService service = service(mailSender);
+        service.pollOutbox();
+
+        verify(emailOutboxRepository).markSent(sentIds.capture(), any());
+        assertThat(sentIds.getValue()).containsExactlyInAnyOrder(1L, 3L);
+        verify(emailOutboxRepository).markFailedAttempt(eq(2L), eq(EmailOutbox.Status.PENDING.name()), eq(1),
+                eq("550 mailbox unavailable"), any());
+        assertThat(service.getStats())
+                .containsEntry("sent", 2L)
+                .containsEntry("failedAttempts", 1L);
+    }
+
+    @Test
+    void retriesTheWholeBatchWhenNothingWasSent() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+        doThrow(new MailAuthenticationException("535 authentication failed")).when(mailSender).send(any(MimeMessage[].class));
+
+        EmailOutbox lastAttempt = email(2L, "b@example.com");
+        lastAttempt.setAttempts(7);
+        givenClaimedBatch(List.of(email(1L, "a@example.com"), lastAttempt));
+
+        service(mailSender).pollOutbox();
+
+        verify(emailOutboxRepository, never()).markSent(any(), any());
+        verify(emailOutboxRepository).markFailedAttempt(eq(1L), eq(EmailOutbox.Status.PENDING.name()), eq(1),
+                anyString(), any());
+        // Attempts exhausted: the message is given up on
+        verify(emailOutboxRepository).markFailedAttempt(eq(2L), eq(EmailOutbox.Status.FAILED.name()), eq(8),
+                anyString(), any());
+    }
+
+    private void givenClaimedBatch(List<EmailOutbox> batch) {
+        when(emailOutboxRepository.claimBatch(any(), any(), anyString(), anyInt())).thenReturn(batch.size(), 0);
+        when(emailOutboxRepository.findByClaimTokenOrderById(anyString())).thenReturn(new ArrayList<>(batch));
+    }
+
+    private EmailOutboxService service(JavaMailSender mailSender) {
+        TaskExecutor inline = Runnable::run;
+        EmailOutboxService service = new EmailOutboxService(emailOutboxRepository, mailSender, inline);
+        ReflectionTestUtils.setField(service, "fromEmail", "noreply@myfinance.test");
+        ReflectionTestUtils.setField(service, "batchSize", 50);
+        ReflectionTestUtils.setField(service, "claimTtlMs", 300_000L);
+        ReflectionTestUtils.setField(service, "maxAttempts", 8);
+        ReflectionTestUtils.setField(service, "retryBaseDelayMs", 30_000L);
+        ReflectionTestUtils.setField(service, "retryMaxDelayMs", 3_600_000L);
+        return service;
+    }
+
+    private EmailOutbox email(Long id, String recipient) {
+        return EmailOutbox.builder()
+                .id(id)
+                .recipient(recipient)
+                .subject("Subject " + id)
+                .htmlBody("<p>Body " + id + "</p>")
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
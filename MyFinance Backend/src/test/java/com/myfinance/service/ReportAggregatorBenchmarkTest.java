@@ -0,0 +1,137 @@
+package com.myfinance.service;
+
+import com.myfinance.entity.Category;
+import com.myfinance.entity.Transaction;
+import com.myfinance.entity.TransactionType;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Category report statistics over 10k, 100k and 1M transactions: the single-pass ReportAggregator
+ * versus the previous multi-pass streams (sum, min, max, then one filter pass per month).
+ * Checks that both produce the same figures and logs the timings; it does not gate on them.
+ */
+class ReportAggregatorBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportAggregatorBenchmarkTest.class);
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    private record Period(BigDecimal amount, long count) {
+    }
+
+    private record Stats(BigDecimal total, long count, BigDecimal min, BigDecimal max, List<Period> periods) {
+    }
+
+    @ParameterizedTest(name = "{0} transactions")
+    @ValueSource(ints = {10_000, 100_000, 1_000_000})
+    void singlePassMatchesMultiPass(int size) {
+        Category category = new Category();
+        category.setId(1L);
+        category.setType(TransactionType.EXPENSE);
+        List<Transaction> transactions = transactions(category, size);
+
+        Stats[] multi = new Stats[1];
+        Stats[] single = new Stats[1];
+        long multiPassNanos = bestOf(3, () -> multi[0] = multiPass(transactions));
+        long singlePassNanos = bestOf(3, () -> single[0] = singlePass(transactions, category.getType()));
+
+        log.info("Category stats over {} transactions: multi-pass {} ms, single-pass {} ms",
+                size, multiPassNanos / 1_000_000, singlePassNanos / 1_000_000);
+
+        assertThat(single[0].count()).isEqualTo(size);
+        assertThat(single[0].total()).isEqualByComparingTo(multi[0].total());
+        assertThat(single[0].min()).isEqualByComparingTo(multi[0].min());
+        assertThat(single[0].max()).isEqualByComparingTo(multi[0].max());
+        assertThat(single[0].periods()).hasSize(12);
+        for (int i = 0; i < 12; i++) {
+            assertThat(single[0].periods().get(i).amount()).isEqualByComparingTo(multi[0].periods().get(i).amount());
+            assertThat(single[0].periods().get(i).count()).isEqualTo(multi[0].periods().get(i).count());
+        }
+    }
+
+    // Same figures as ReportService.generateCategoryReport
+    private static Stats singlePass(List<Transaction> transactions, TransactionType type) {
+        ReportAggregator aggregator = new ReportAggregator();
+        transactions.forEach(aggregator::addTransaction);
+        ReportAggregator.Accumulator summary = aggregator.total(type);
+
+        List<Period> periods = new ArrayList<>();
+        for (LocalDate month = START; !month.isAfter(END); month = month.plusMonths(1)) {
+            ReportAggregator.Accumulator period = aggregator.monthTotal(month.getYear(), month.getMonthValue(), type);
+            periods.add(new Period(period.getSum(), period.getCount()));
+        }
+        return new Stats(summary.getSum(), summary.getCount(), summary.getMin(), summary.getMax(), periods);
+    }
+
+    // The statistics code before the aggregator: one stream per figure and a filter pass per month
+    private static Stats multiPass(List<Transaction> transactions) {
+        BigDecimal total = transactions.stream()
+            .map(Transaction::getAmount)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal min = transactions.stream()
+            .map(Transaction::getAmount)
+            .min(BigDecimal::compareTo)
+            .orElse(BigDecimal.ZERO);
+        BigDecimal max = transactions.stream()
+            .map(Transaction::getAmount)
+            .max(BigDecimal::compareTo)
+            .orElse(BigDecimal.ZERO);
+
+        List<Period> periods = new ArrayList<>();
+        for (LocalDate month = START; !month.isAfter(END); month = month.plusMonths(1)) {
+            LocalDate periodStart = month;
+            LocalDate periodEnd = month.plusMonths(1).minusDays(1);
+            List<Transaction> periodTransactions = transactions.stream()
+                .filter(t -> !t.getTransactionDate().isBefore(periodStart) && !t.getTransactionDate().isAfter(periodEnd))
+                .toList();
+            BigDecimal amount = periodTransactions.stream()
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            periods.add(new Period(amount, periodTransactions.size()));
+        }
+        return new Stats(total, transactions.size(), min, max, periods);
+    }
+
+    private static List<Transaction> transactions(Category category, int size) {
+        LocalDate[] days = new LocalDate[366];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = START.plusDays(i);
+        }
+        BigDecimal[] amounts = new BigDecimal[997];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = BigDecimal.valueOf(1000 + i * 37L, 2);
+        }
+
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setCategory(category);
+            transaction.setType(category.getType());
+            transaction.setAmount(amounts[i % amounts.length]);
+            transaction.setTransactionDate(days[i % days.length]);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    private static long bestOf(int runs, Runnable action) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long startedAt = System.nanoTime();
+            action.run();
+            best = Math.min(best, System.nanoTime() - startedAt);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,129 @@
+package com.myfinance.service;
+
+import com.myfinance.entity.Category;
+import com.myfinance.entity.Transaction;
+import com.myfinance.entity.TransactionType;
+import com.myfinance.entity.UserMonthCategoryTotal;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportAggregatorTest {
+
+    private final Category salary = category(1L, "Lương", TransactionType.INCOME);
+    private final Category food = category(2L, "Ăn uống", TransactionType.EXPENSE);
+    private final Category rent = category(3L, "Nhà ở", TransactionType.EXPENSE);
+
+    @Test
+    void foldsTransactionsIntoTypeMonthAndCategoryTotals() {
+        ReportAggregator aggregator = new ReportAggregator()
+                .addTransaction(transaction(salary, "15000000.00", TransactionType.INCOME, LocalDate.of(2025, 1, 5)))
+                .addTransaction(transaction(food, "120000.50", TransactionType.EXPENSE, LocalDate.of(2025, 1, 6)))
+                .addTransaction(transaction(food, "80000.25", TransactionType.EXPENSE, LocalDate.of(2025, 2, 1)))
+                .addTransaction(transaction(rent, "5000000.00", TransactionType.EXPENSE, LocalDate.of(2025, 2, 3)));
+
+        ReportAggregator.Accumulator expense = aggregator.total(TransactionType.EXPENSE);
+        assertThat(expense.getSum()).isEqualByComparingTo("5200000.75");
+        assertThat(expense.getCount()).isEqualTo(3);
+        assertThat(expense.getMin()).isEqualByComparingTo("80000.25");
+        assertThat(expense.getMax()).isEqualByComparingTo("5000000.00");
+        assertThat(aggregator.total(TransactionType.INCOME).getSum()).isEqualByComparingTo("15000000.00");
+        assertThat(aggregator.totalCount()).isEqualTo(4);
+        assertThat(aggregator.totalAmount()).isEqualByComparingTo("20200000.75");
+
+        ReportAggregator.Accumulator february = aggregator.monthTotal(2025, 2, TransactionType.EXPENSE);
+        assertThat(february.getSum()).isEqualByComparingTo("5080000.25");
+        assertThat(february.getCount()).isEqualTo(2);
+        assertThat(aggregator.monthTotal(2025, 2, TransactionType.INCOME).isEmpty()).isTrue();
+
+        Map<Category, ReportAggregator.Accumulator> byCategory = aggregator.byCategory(TransactionType.EXPENSE);
+        assertThat(byCategory.keySet()).containsExactly(food, rent);
+        assertThat(byCategory.get(food).getSum()).isEqualByComparingTo("200000.75");
+        assertThat(byCategory.get(food).getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rollupRowsGiveTheSameTotalsAsTheirTransactions() {
+        ReportAggregator fromTransactions = new ReportAggregator()
+                .addTransaction(transaction(food, "100.10", TransactionType.EXPENSE, LocalDate.of(2024, 12, 1)))
+                .addTransaction(transaction(food, "50.05", TransactionType.EXPENSE, LocalDate.of(2024, 12, 20)))
+                .addTransaction(transaction(rent, "900.00", TransactionType.EXPENSE, LocalDate.of(2025, 1, 1)));
+
+        ReportAggregator fromRollups = new ReportAggregator().addRollups(List.of(
+                rollup(2024, 12, food, "150.15", 2, "50.05", "100.10"),
+                rollup(2025, 1, rent, "900.00", 1, "900.00", "900.00")));
+
+        for (ReportAggregator aggregator : List.of(fromTransactions, fromRollups)) {
+            ReportAggregator.Accumulator december = aggregator.monthTotal(2024, 12, TransactionType.EXPENSE);
+            assertThat(december.getSum()).isEqualByComparingTo("150.15");
+            assertThat(december.getCount()).isEqualTo(2);
+            assertThat(december.getMin()).isEqualByComparingTo("50.05");
+            assertThat(december.getMax()).isEqualByComparingTo("100.10");
+            assertThat(aggregator.monthTotal(2025, 1, TransactionType.EXPENSE).getSum()).isEqualByComparingTo("900.00");
+            assertThat(aggregator.total(TransactionType.EXPENSE).getCount()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void skipsEmptyBucketsAndReportsZeroForMissingData() {
+        UserMonthCategoryTotal noCount = rollup(2025, 3, food, "10.00", 1, "10.00", "10.00");
+        noCount.setTransactionCount(null);
+
+        ReportAggregator aggregator = new ReportAggregator()
+                .addRollup(noCount)
+                .addMonthBucket(2025, 3, rent, TransactionType.EXPENSE, BigDecimal.TEN, 0, null, null);
+
+        assertThat(aggregator.totalCount()).isZero();
+        assertThat(aggregator.byCategory(TransactionType.EXPENSE)).isEmpty();
+
+        ReportAggregator.Accumulator missing = aggregator.monthTotal(2030, 1, TransactionType.EXPENSE);
+        assertThat(missing.isEmpty()).isTrue();
+        assertThat(missing.getSum()).isEqualByComparingTo("0");
+        assertThat(missing.getMin()).isEqualByComparingTo("0");
+        assertThat(missing.getMax()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void roundsAmountsToCentsHalfUp() {
+        assertThat(ReportAggregator.toCents(new BigDecimal("0.005"))).isEqualTo(1);
+        assertThat(ReportAggregator.toCents(new BigDecimal("12.344"))).isEqualTo(1234);
+        assertThat(ReportAggregator.fromCents(1234)).isEqualByComparingTo("12.34");
+        assertThat(ReportAggregator.monthIndex(2025, 1) - ReportAggregator.monthIndex(2024, 12)).isEqualTo(1);
+    }
+
+    private static Category category(Long id, String name, TransactionType type) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        category.setType(type);
+        return category;
+    }
+
+    private static Transaction transaction(Category category, String amount, TransactionType type, LocalDate date) {
+        Transaction transaction = new Transaction();
+        transaction.setCategory(category);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setType(type);
+        transaction.setTransactionDate(date);
+        return transaction;
+    }
+
+    private static UserMonthCategoryTotal rollup(int year, int month, Category category, String total,
+                                                 long count, String min, String max) {
+        UserMonthCategoryTotal row = new UserMonthCategoryTotal();
+        row.setPeriodYear(year);
+        row.setPeriodMonth(month);
+        row.setCategory(category);
+        row.setType(category.getType());
+        row.setTotalAmount(new BigDecimal(total));
+        row.setTransactionCount(count);
+        row.setMinAmount(new BigDecimal(min));
+        row.setMaxAmount(new BigDecimal(max));
+        return row;
+    }
+}
@@ -0,0 +1,234 @@
+package com.myfinance.service;
+
+import com.myfinance.config.AsyncConfig;
+import com.myfinance.dto.response.MonthlyReportResponse;
+import com.myfinance.entity.ScheduledReport;
+import com.myfinance.entity.User;
+import com.myfinance.repository.ScheduledReportRepository;
+import com.myfinance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Claim, dispatch and release of due scheduled reports, against a mocked repository
+ */
+class ScheduledReportServiceTest {
+
+    private ScheduledReportRepository scheduledReportRepository;
+    private UserRepository userRepository;
+    private ReportService reportService;
+    private EmailService emailService;
+    private PDFReportGenerator pdfReportGenerator;
+    private ScheduledReportTimer scheduledReportTimer;
+    private final List<Runnable> executedTasks = new ArrayList<>();
+    private int executorCapacity;
+
+    private ScheduledReportService service;
+
+    @BeforeEach
+    void setUp() {
+        scheduledReportRepository = mock(ScheduledReportRepository.class);
+        userRepository = mock(UserRepository.class);
+        reportService = mock(ReportService.class);
+        emailService = mock(EmailService.class);
+        pdfReportGenerator = mock(PDFReportGenerator.class);
+        scheduledReportTimer = mock(ScheduledReportTimer.class);
+        executorCapacity = Integer.MAX_VALUE;
+
+        // Runs tasks inline until the capacity is used up, then rejects like a full queue
+        TaskExecutor executor = task -> {
+            if (executedTasks.size() >= executorCapacity) {
+                throw new TaskRejectedException("queue full");
+            }
+            executedTasks.add(task);
+            task.run();
+        };
+
+        service = service(executor, 500);
+
+        // Execution fails on the missing user, which exercises the failure bookkeeping without rendering
+        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void claimsDueReportsWithOneTokenAndReleasesEachAfterItsRun() {
+        List<ScheduledReport> reports = List.of(report(1L), report(2L));
+        when(scheduledReportTimer.pollDue(any(), eq(500))).thenReturn(List.of(1L, 2L));
+        when(scheduledReportRepository.claimReports(eq(List.of(1L, 2L)), any(), any(), anyString())).thenReturn(2);
+        when(scheduledReportRepository.findByClaimTokenOrderByNextRun(anyString())).thenReturn(reports);
+
+        service.executeScheduledReports();
+
+        ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> claimedUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(scheduledReportRepository).claimReports(eq(List.of(1L, 2L)), now.capture(), claimedUntil.capture(),
+                claimToken.capture());
+        assertThat(claimedUntil.getValue()).isEqualTo(now.getValue().plusMinutes(30));
+
+        verify(scheduledReportRepository).findByClaimTokenOrderByNextRun(claimToken.getValue());
+        assertThat(executedTasks).hasSize(2);
+        verify(scheduledReportRepository).releaseClaim(1L, claimToken.getValue());
+        verify(scheduledReportRepository).releaseClaim(2L, claimToken.getValue());
+
+        // Failed runs are rescheduled with backoff and the in-flight counter drops back to zero
+        verify(scheduledReportRepository, times(2)).recordFailure(anyLong(), eq(1), anyString(), any());
+        assertThat(service.getExecutionStats())
+                .containsEntry("failedRuns", 2L)
+                .containsEntry("running", 0)
+                .containsEntry("lastDispatchCount", 2);
+    }
+
+    @Test
+    void skipsLoadingAndDispatchWhenAnotherInstanceHoldsTheClaims() {
+        when(scheduledReportTimer.pollDue(any(), anyInt())).thenReturn(List.of(1L, 2L));
+        when(scheduledReportRepository.claimReports(any(), any(), any(), anyString())).thenReturn(0);
+
+        service.executeScheduledReports();
+
+        verify(scheduledReportRepository, never()).findByClaimTokenOrderByNextRun(anyString());
+        verify(scheduledReportRepository, never()).releaseClaim(anyLong(), anyString());
+        assertThat(executedTasks).isEmpty();
+    }
+
+    @Test
+    void doesNotClaimWhenNothingIsDue() {
+        when(scheduledReportTimer.pollDue(any(), anyInt())).thenReturn(List.of());
+
+        service.executeScheduledReports();
+
+        verify(scheduledReportRepository, never()).claimReports(any(), any(), any(), anyString());
+    }
+
+    @Test
+    void releasesAndReschedulesReportsRejectedByAFullQueue() {
+        List<ScheduledReport> reports = List.of(report(1L), report(2L), report(3L));
+        when(scheduledReportTimer.pollDue(any(), anyInt())).thenReturn(List.of(1L, 2L, 3L));
+        when(scheduledReportRepository.claimReports(any(), any(), any(), anyString())).thenReturn(3);
+        when(scheduledReportRepository.findByClaimTokenOrderByNextRun(anyString())).thenReturn(reports);
+        executorCapacity = 1;
+
+        service.executeScheduledReports();
+
+        ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+        verify(scheduledReportRepository).releaseClaim(eq(1L), claimToken.capture());
+        verify(scheduledReportRepository).releaseClaim(2L, claimToken.getValue());
+        verify(scheduledReportRepository).releaseClaim(3L, claimToken.getValue());
+
+        // Only the rejected reports go back to the timer untouched; the dispatched one was rescheduled by its failure
+        verify(scheduledReportTimer).schedule(reports.get(1));
+        verify(scheduledReportTimer).schedule(reports.get(2));
+        verify(scheduledReportRepository, times(1)).recordFailure(eq(1L), anyInt(), anyString(), any());
+        assertThat(service.getExecutionStats())
+                .containsEntry("running", 0)
+                .containsEntry("lastDispatchCount", 1);
+    }
+
+    @Test
+    void runsAThousandDueReportsInParallelAndReleasesEachClaimOnce() throws Exception {
+        int reportCount = 1000;
+        List<Long> ids = LongStream.rangeClosed(1, reportCount).boxed().toList();
+        List<ScheduledReport> reports = ids.stream().map(this::report).toList();
+        when(scheduledReportTimer.pollDue(any(), eq(reportCount))).thenReturn(ids);
+        when(scheduledReportRepository.claimReports(eq(ids), any(), any(), anyString())).thenReturn(reportCount);
+        when(scheduledReportRepository.findByClaimTokenOrderByNextRun(anyString())).thenReturn(reports);
+
+        User user = new User();
+        user.setId(10L);
+        user.setEmail("user@example.com");
+        user.setFullName("Người dùng");
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+        when(reportService.generateMonthlySummary(anyLong(), anyInt(), anyInt())).thenReturn(new MonthlyReportResponse());
+        when(pdfReportGenerator.generateMonthlyReportPDF(any())).thenReturn(new byte[]{1});
+
+        // Each delivery sleeps 5 ms, so running the reports one after another takes at least 5 s
+        long deliveryMs = 5;
+        long serialLowerBoundMs = reportCount * deliveryMs;
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(deliveryMs);
+            inFlight.decrementAndGet();
+            return null;
+        }).when(emailService).sendScheduledReportEmail(anyLong(), anyString(), anyString(), anyString(), any(), anyString());
+
+        ThreadPoolTaskExecutor executor = new AsyncConfig().scheduledReportExecutor(4, 2000);
+        try {
+            ScheduledReportService parallel = service(executor, reportCount);
+            long startedAt = System.nanoTime();
+            parallel.executeScheduledReports();
+            executor.getThreadPoolExecutor().shutdown();
+            // Hang guard only; the timing is asserted below
+            assertThat(executor.getThreadPoolExecutor().awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+            ArgumentCaptor<Long> released = ArgumentCaptor.forClass(Long.class);
+            verify(scheduledReportRepository, times(reportCount)).releaseClaim(released.capture(), anyString());
+            assertThat(released.getAllValues()).doesNotHaveDuplicates().hasSize(reportCount);
+            verify(scheduledReportRepository, times(reportCount)).recordRun(anyLong(), any(), any());
+            verify(scheduledReportRepository, never()).recordFailure(anyLong(), anyInt(), anyString(), any());
+
+            // 4 workers ideally take a quarter of the serial time; at least halving it leaves room for the
+            // CPU-bound mock and logging overhead (about 1 ms per report, which does not overlap on one core)
+            assertThat(maxInFlight.get()).isBetween(2, 4);
+            assertThat(elapsedMs).isLessThan(serialLowerBoundMs / 2);
+            assertThat(parallel.getExecutionStats())
+                    .containsEntry("completedRuns", (long) reportCount)
+                    .containsEntry("running", 0)
+                    .containsEntry("lastDispatchCount", reportCount);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private ScheduledReportService service(TaskExecutor executor, int claimBatchSize) {
+        ScheduledReportService service = new ScheduledReportService(scheduledReportRepository, userRepository,
+                reportService, emailService, pdfReportGenerator, mock(CSVReportGenerator.class),
+                scheduledReportTimer, executor);
+        ReflectionTestUtils.setField(service, "claimBatchSize", claimBatchSize);
+        ReflectionTestUtils.setField(service, "claimTtlMs", 1_800_000L);
+        ReflectionTestUtils.setField(service, "maxAttempts", 5);
+        ReflectionTestUtils.setField(service, "retryBaseDelayMs", 60_000L);
+        ReflectionTestUtils.setField(service, "retryMaxDelayMs", 3_600_000L);
+        return service;
+    }
+
+    private ScheduledReport report(Long id) {
+        return ScheduledReport.builder()
+                .id(id)
+                .userId(10L)
+                .reportType(ScheduledReport.ReportType.MONTHLY)
+                .frequency(ScheduledReport.ScheduleFrequency.MONTHLY)
+                .format(ScheduledReport.ReportFormat.PDF)
+                .emailDelivery(true)
+                .nextRun(LocalDateTime.now().minusMinutes(1))
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.myfinance.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loading, LRU trimming, expiry and after-commit eviction of the shared TTL cache
+ */
+class TtlCacheTest {
+
+    @Test
+    void loadsOnceAndServesFromCacheUntilEvicted() {
+        TtlCache<Long, String> cache = new TtlCache<>(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get(1L, id -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(cache.get(1L, id -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+
+        cache.evictAfterCommit(1L);
+        assertThat(cache.get(1L, id -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+    }
+
+    @Test
+    void reloadsExpiredEntries() {
+        TtlCache<Long, String> cache = new TtlCache<>(10, 0);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> "v" + loads.incrementAndGet());
+        cache.get(1L, id -> "v" + loads.incrementAndGet());
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void trimsLeastRecentlyUsedEntriesBeyondMaxSize() {
+        TtlCache<Long, String> cache = new TtlCache<>(2, 60_000);
+        cache.get(1L, id -> "one");
+        cache.get(2L, id -> "two");
+        cache.get(1L, id -> "reloaded");
+        cache.get(3L, id -> "three");
+
+        // 2 was the least recently used when 3 came in
+        assertThat(cache.get(1L, id -> "reloaded")).isEqualTo("one");
+        assertThat(cache.get(2L, id -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    void doesNotCacheAValueLoadedWhileTheKeyWasEvicted() {
+        TtlCache<Long, String> cache = new TtlCache<>(10, 60_000);
+
+        // A write commits between the read and the put of a concurrent load
+        assertThat(cache.get(1L, id -> {
+            cache.evictAfterCommit(1L);
+            return "stale";
+        })).isEqualTo("stale");
+
+        assertThat(cache.get(1L, id -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void evictsOnlyAfterTheTransactionCommits() {
+        TtlCache<Long, String> cache = new TtlCache<>(10, 60_000);
+        cache.get(1L, id -> "old");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evictAfterCommit(1L);
+            assertThat(cache.get(1L, id -> "new")).isEqualTo("old");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.get(1L, id -> "new")).isEqualTo("new");
+    }
+}
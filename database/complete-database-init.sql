@@ -26,6 +26,7 @@ CREATE TABLE IF NOT EXISTS users (
     is_email_verified BOOLEAN DEFAULT FALSE,
     last_login DATETIME,
     login_count BIGINT DEFAULT 0,
+    tokens_valid_after DATETIME, -- Tokens issued earlier are rejected (logout, password change)
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_users_email (email),
@@ -72,9 +73,29 @@ CREATE TABLE IF NOT EXISTS transactions (
     INDEX idx_transactions_date (transaction_date),
     INDEX idx_transactions_user_date (user_id, transaction_date),
     INDEX idx_transactions_user_type (user_id, type),
+    INDEX idx_transactions_user_category_date (user_id, category_id, transaction_date),
     INDEX idx_transactions_created_at (created_at)
 );
 
+-- Create user_month_category_totals table (rollup maintained on every transaction write)
+CREATE TABLE IF NOT EXISTS user_month_category_totals (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    period_year INT NOT NULL,
+    period_month INT NOT NULL,
+    category_id BIGINT NOT NULL,
+    type ENUM('INCOME', 'EXPENSE') NOT NULL,
+    total_amount DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    min_amount DECIMAL(12, 2),
+    max_amount DECIMAL(12, 2),
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE,
+    UNIQUE KEY unique_user_period_category_type (user_id, period_year, period_month, category_id, type),
+    INDEX idx_month_totals_period (period_year, period_month)
+);
+
 -- ============================================================================
 -- FLOW 3: BUDGET PLANNING
 -- ============================================================================
@@ -85,10 +106,12 @@ CREATE TABLE IF NOT EXISTS budgets (
     user_id BIGINT NOT NULL,
     category_id BIGINT NOT NULL,
     budget_amount DECIMAL(12, 2) NOT NULL,
+    spent_amount DECIMAL(15, 2) NOT NULL DEFAULT 0 COMMENT 'Maintained by expense writes, reconciled daily from transactions',
     budget_year INT NOT NULL,
     budget_month INT NOT NULL,
     description TEXT,
     is_active BOOLEAN DEFAULT TRUE,
+    last_alert_level VARCHAR(20) DEFAULT 'NONE' COMMENT 'Highest alert level already emailed: NONE, WARNING, CRITICAL, OVER_BUDGET',
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
@@ -100,6 +123,21 @@ CREATE TABLE IF NOT EXISTS budgets (
     INDEX idx_budgets_active (is_active)
 );
 
+-- Create budget_alert_digest_items table (alerts held back for the daily digest email)
+CREATE TABLE IF NOT EXISTS budget_alert_digest_items (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    budget_id BIGINT NOT NULL,
+    category_name VARCHAR(100) NOT NULL,
+    budget_amount DECIMAL(12,2) NOT NULL,
+    actual_amount DECIMAL(15,2) NOT NULL,
+    usage_percent DOUBLE NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_budget_alert_digest_items_user_id (user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Create user_budget_settings table (simplified - removed unused notification fields)
 -- Note: Notification preferences are managed in user_preferences table instead
 CREATE TABLE IF NOT EXISTS user_budget_settings (
@@ -136,6 +174,11 @@ CREATE TABLE IF NOT EXISTS scheduled_reports (
     scheduled_day_of_week INT DEFAULT NULL COMMENT 'Day of week (1=Monday, 7=Sunday) for WEEKLY schedules',
     scheduled_day_of_month INT DEFAULT NULL COMMENT 'Day of month (1-31) for MONTHLY schedules',
     last_manual_send TIMESTAMP NULL COMMENT 'Timestamp of last manual "Send Now" trigger (for rate limiting)',
+    failure_count INT DEFAULT 0 COMMENT 'Consecutive failed runs, reset on success',
+    last_error VARCHAR(500) NULL COMMENT 'Error of the last failed run',
+    dead_lettered_at TIMESTAMP NULL COMMENT 'Set when retries are exhausted; the report is skipped until requeued',
+    claim_token VARCHAR(36) NULL COMMENT 'Token of the instance currently executing this report',
+    claimed_until TIMESTAMP NULL COMMENT 'Claim expiry; an expired claim can be taken over by another instance',
 
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
@@ -149,9 +192,31 @@ CREATE TABLE IF NOT EXISTS scheduled_reports (
 
     INDEX idx_scheduled_reports_user_id (user_id),
     INDEX idx_scheduled_reports_is_active (is_active),
-    INDEX idx_scheduled_reports_next_run (next_run)
+    INDEX idx_scheduled_reports_next_run (next_run),
+    INDEX idx_scheduled_reports_claim_token (claim_token)
 );
 
+-- Create email_outbox table (emails written with the business change, sent in batches)
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    html_body MEDIUMTEXT NOT NULL,
+    attachment LONGBLOB NULL,
+    attachment_name VARCHAR(255) NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' COMMENT 'PENDING, SENT or FAILED (attempts exhausted)',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(500) NULL,
+    claim_token VARCHAR(36) NULL COMMENT 'Token of the instance currently sending this email',
+    claimed_until TIMESTAMP NULL COMMENT 'Claim expiry; an expired claim can be taken over by another instance',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP NULL,
+
+    INDEX idx_email_outbox_status_next_attempt (status, next_attempt_at),
+    INDEX idx_email_outbox_claim_token (claim_token)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- ============================================================================
 -- FLOW 5: ADMIN SYSTEM & MANAGEMENT
 -- ============================================================================
@@ -237,6 +302,13 @@ CREATE TABLE IF NOT EXISTS system_config (
     INDEX idx_created_at (created_at)
 );
 
+-- Single-row change counter for system_config; bumped on every config write so all
+-- backend instances can detect changes with a cheap poll
+CREATE TABLE IF NOT EXISTS system_config_version (
+    id INT NOT NULL PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
 -- ============================================================================
 -- FLOW 6: UX ENHANCEMENT & POLISHING (FLOW 6A)
 -- ============================================================================
@@ -249,9 +321,10 @@ CREATE TABLE IF NOT EXISTS user_preferences (
     -- Display Preferences (1 field)
     view_mode VARCHAR(20) DEFAULT 'usage', -- Controls budget view display (usage=analytics, basic=simple list)
 
-    -- Notification Preferences (2 fields)
+    -- Notification Preferences (3 fields)
     email_notifications BOOLEAN DEFAULT TRUE, -- Master email switch
     budget_alerts BOOLEAN DEFAULT TRUE, -- Budget alert emails
+    budget_alert_digest BOOLEAN DEFAULT FALSE, -- Collect budget alerts into one daily email
 
     -- NOTE: All other preferences have been removed (non-functional or redundant)
     -- Removed Display: language, currency, date_format, timezone, theme, items_per_page
@@ -310,6 +383,8 @@ INSERT IGNORE INTO system_config (config_key, config_value, description, config_
 ('SESSION_TIMEOUT_HOURS', '24', 'Thời gian hết hạn phiên (giờ)', 'SECURITY', false),
 ('APP_NAME', 'MyFinance', 'Tên ứng dụng (Tính năng tương lai - white-labeling)', 'APPLICATION', true);
 
+INSERT IGNORE INTO system_config_version (id, version) VALUES (1, 0);
+
 -- Assign USER role to all existing users who don't have it
 INSERT IGNORE INTO user_roles (user_id, role_id, is_active)
 SELECT u.id, r.id, TRUE
@@ -333,9 +408,12 @@ SELECT
     (SELECT COUNT(*) FROM users) as users_count,
     (SELECT COUNT(*) FROM categories) as categories_count,
     (SELECT COUNT(*) FROM transactions) as transactions_count,
+    (SELECT COUNT(*) FROM user_month_category_totals) as month_category_totals_count,
     (SELECT COUNT(*) FROM budgets) as budgets_count,
+    (SELECT COUNT(*) FROM budget_alert_digest_items) as budget_alert_digest_items_count,
     (SELECT COUNT(*) FROM user_budget_settings) as budget_settings_count,
     (SELECT COUNT(*) FROM scheduled_reports) as scheduled_reports_count,
+    (SELECT COUNT(*) FROM email_outbox) as email_outbox_count,
     (SELECT COUNT(*) FROM roles) as roles_count,
     (SELECT COUNT(*) FROM user_roles) as user_roles_count,
     (SELECT COUNT(*) FROM system_config) as system_config_count,
@@ -106,6 +106,12 @@ export const AuthProvider = ({ children }) => {
  setIsAuthenticated(false);
  };
 
+ // User-initiated logout also lets the backend forget the token
+ const signOut = async () => {
+ await userAPI.logout();
+ logout();
+ };
+
  // Helper functions for role checking
  const hasRole = (role) => {
  return userRoles.includes(role);
@@ -173,7 +179,7 @@ export const AuthProvider = ({ children }) => {
  loading,
  login,
  register,
- logout,
+ logout: signOut,
  updateProfile,
  updateExtendedProfile,
  changePassword,
@@ -134,9 +134,10 @@ export const PreferencesProvider = ({ children }) => {
  // Display Preferences (1 field)
  viewMode: 'usage',
 
- // Notification Preferences (2 fields)
+ // Notification Preferences (3 fields)
  emailNotifications: true,
- budgetAlerts: true
+ budgetAlerts: true,
+ budgetAlertDigest: false
  });
 
  // Display Preference Helpers
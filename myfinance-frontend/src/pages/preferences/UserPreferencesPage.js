@@ -8,7 +8,8 @@ const UserPreferencesPage = () => {
  const [preferences, setPreferences] = useState({
  viewMode: 'usage',
  emailNotifications: true,
- budgetAlerts: true
+ budgetAlerts: true,
+ budgetAlertDigest: false
  });
  const [loading, setLoading] = useState(true);
  const [saving, setSaving] = useState(false);
@@ -207,6 +208,25 @@ const UserPreferencesPage = () => {
  Nhận thông báo khi vượt ngưỡng ngân sách
  </p>
  </div>
+
+ {/* Budget Alert Digest */}
+ <div className="mb-6">
+ <label className="flex items-center">
+ <input
+ type="checkbox"
+ checked={preferences.budgetAlertDigest ?? false}
+ onChange={(e) => handleInputChange('budgetAlertDigest', e.target.checked)}
+ disabled={!preferences.budgetAlerts}
+ className="h-4 w-4 text-indigo-600 focus:ring-indigo-500 border-gray-300 rounded"
+ />
+ <span className="ml-3 text-sm font-medium text-gray-700">
+ Tổng hợp cảnh báo hằng ngày
+ </span>
+ </label>
+ <p className="text-sm text-gray-500 mt-1 ml-7">
+ Gộp các cảnh báo ngân sách trong ngày vào một email duy nhất
+ </p>
+ </div>
  </div>
 
  {/* Actions */}
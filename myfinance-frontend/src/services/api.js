@@ -220,6 +220,10 @@ class UserAPI extends ApiService {
  async changePassword(passwordData) {
  try {
  const response = await this.post('/api/auth/change-password', passwordData);
+ // Older tokens are revoked by the password change; keep this session with the new one
+ if (response && response.success && response.data) {
+ this.setAuthToken(response.data);
+ }
  return response;
  } catch (error) {
  return {
@@ -285,9 +289,17 @@ class UserAPI extends ApiService {
  }
 
  // Logout
- logout() {
+ async logout() {
+ try {
+ if (this.getAuthToken()) {
+ await this.post('/api/auth/logout');
+ }
+ } catch (error) {
+ // Local logout still succeeds when the server is unreachable
+ } finally {
  this.removeAuthToken();
  }
+ }
 }
 
 // Transaction API methods